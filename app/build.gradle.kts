@@ -27,18 +27,59 @@ android {
         }
     }
 
+    androidResources {
+        noCompress += "bin"                      // Keep the recipe catalog mappable from the APK
+    }
+
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_17  // Java version used to compile source code
         targetCompatibility = JavaVersion.VERSION_17  // Java version for generated bytecode
     }
+
+    sourceSets {
+        // Unit tests write catalogs with the same writer as the build
+        getByName("test").java.srcDir("../buildSrc/src/main/java")
+    }
+}
+
+// Compile the CSV recipe catalog into the binary format read by BinaryRecipeCatalog,
+// with the writer in buildSrc that the unit tests read back
+abstract class GenerateRecipeCatalogTask : DefaultTask() {
+
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val source: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        bd.edu.seu.cookify.catalog.RecipeCatalogWriter.write(
+            source.get().asFile,
+            outputDir.get().file("recipe_catalog.bin").asFile
+        )
+    }
+}
+
+val generateRecipeCatalog = tasks.register<GenerateRecipeCatalogTask>("generateRecipeCatalog") {
+    source.set(layout.projectDirectory.file("src/main/catalog/recipe_mappings.csv"))
+    outputDir.set(layout.buildDirectory.dir("generated/recipeCatalog"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(generateRecipeCatalog, GenerateRecipeCatalogTask::outputDir)
+    }
 }
 
 dependencies {
     //  Firebase BOM ensures all Firebase libraries use compatible versions automatically
     implementation(platform("com.google.firebase:firebase-bom:32.7.0"))
 
-    // Load images from URLs into ImageViews
-    implementation("com.squareup.picasso:picasso:2.8")
+    // Load images from URLs into ImageViews; the only image loader, configured by CookifyGlideModule
+    implementation("com.github.bumptech.glide:glide:4.15.1")
+    annotationProcessor("com.github.bumptech.glide:compiler:4.15.1")
 
     //  Firebase Authentication for email/password login
     implementation(libs.firebase.auth)
@@ -57,11 +98,6 @@ dependencies {
     implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation("androidx.cardview:cardview:1.0.0")
 
-
-    implementation ("com.github.bumptech.glide:glide:4.15.1")
-    annotationProcessor ("com.github.bumptech.glide:compiler:4.15.1")
-
-
     //  Testing libraries
     testImplementation("junit:junit:4.13.2")                     // Unit tests
     androidTestImplementation("androidx.test.ext:junit:1.1.5")  // AndroidX JUnit tests
@@ -0,0 +1,108 @@
+package bd.edu.seu.cookify.utils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import bd.edu.seu.cookify.models.RecipeItem;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the server-side prefix search against the local Firestore emulator.
+ * Start it first with: firebase emulators:start --only firestore
+ */
+@RunWith(AndroidJUnit4.class)
+public class RemoteRecipeSearchTest {
+
+    // The host machine as seen from the Android emulator
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+    private static final String ID_PREFIX = "remote-search-test-";
+    private static final String BANGLA = "Emulator Bangladeshi";
+    private static final String INDIAN = "Emulator Indian";
+
+    private static final String[][] RECIPES = {
+            {"1", "Chicken Biryani", BANGLA},
+            {"2", "chicken  Curry", INDIAN},
+            {"3", "Chickpea Salad", INDIAN},
+            {"4", "Beef Tehari", BANGLA},
+            {"5", "Chick Pea Soup", BANGLA},
+    };
+
+    private static FirebaseFirestore db;
+    private static RemoteRecipeSearch search;
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        db = FirebaseFirestore.getInstance();
+        try {
+            db.useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        } catch (IllegalStateException alreadyStarted) {
+            // Another test in this process configured the instance already
+        }
+        search = new RemoteRecipeSearch(db);
+
+        WriteBatch batch = db.batch();
+        for (String[] recipe : RECIPES) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("name", recipe[1]);
+            fields.put("culture", recipe[2]);
+            fields.put("category", "Dinner");
+            fields.put(RemoteRecipeSearch.FIELD_NAME_LOWER, RemoteRecipeSearch.nameLower(recipe[1]));
+            batch.set(db.collection("recipes").document(ID_PREFIX + recipe[0]), fields);
+        }
+        Tasks.await(batch.commit(), 10, TimeUnit.SECONDS);
+    }
+
+    @AfterClass
+    public static void cleanUp() throws Exception {
+        WriteBatch batch = db.batch();
+        for (String[] recipe : RECIPES) batch.delete(db.collection("recipes").document(ID_PREFIX + recipe[0]));
+        Tasks.await(batch.commit(), 10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void search_returnsNamesStartingWithPrefixInOrder() throws Exception {
+        assertEquals(Arrays.asList("Chick Pea Soup", "Chicken Biryani", "chicken  Curry", "Chickpea Salad"),
+                seededNames(search.search(" CHICK", null, 20)));
+        // Whitespace is normalized like the stored field
+        assertEquals(Arrays.asList("chicken  Curry"), seededNames(search.search("Chicken   cu", "All", 20)));
+        assertTrue(seededNames(search.search("hicken", null, 20)).isEmpty());
+    }
+
+    @Test
+    public void search_combinesPrefixWithCulture() throws Exception {
+        assertEquals(Arrays.asList("chicken  Curry", "Chickpea Salad"), seededNames(search.search("chick", INDIAN, 20)));
+        assertEquals(Arrays.asList("Beef Tehari", "Chick Pea Soup"), seededNames(search.search("", BANGLA, 2)));
+    }
+
+    @Test
+    public void countRecipes_includesSeededRecipes() throws Exception {
+        long count = Tasks.await(search.countRecipes(), 10, TimeUnit.SECONDS);
+        assertTrue(count >= RECIPES.length);
+    }
+
+    // Names of the recipes this test created, other emulator data is ignored
+    private static List<String> seededNames(List<RecipeItem> items) {
+        List<String> names = new ArrayList<>();
+        for (RecipeItem item : items) {
+            if (item.getId().startsWith(ID_PREFIX)) names.add(item.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,84 @@
+package bd.edu.seu.cookify.adapters;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import bd.edu.seu.cookify.utils.CompletionTrie;
+
+/**
+ * Dropdown suggestions for an AutoCompleteTextView, answered by a {@link CompletionTrie}.
+ * Filtering runs on the widget's filter thread, so the trie may be built lazily there
+ */
+public class CompletionAdapter extends ArrayAdapter<String> {
+
+    private final List<String> suggestions = new ArrayList<>();
+    private volatile Supplier<CompletionTrie> source = () -> null;
+    private CompletionTrie trie;
+
+    public CompletionAdapter(Context context) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+    }
+
+    /**
+     * Set where completions come from. The trie is requested on the first lookup
+     * and kept until the source is replaced
+     * @param source Supplies the trie, may return null while nothing is loaded
+     */
+    public void setSource(Supplier<CompletionTrie> source) {
+        this.source = source;
+        synchronized (this) {
+            trie = null;
+        }
+    }
+
+    private synchronized CompletionTrie trie() {
+        if (trie == null) trie = source.get();
+        return trie;
+    }
+
+    @Override
+    public int getCount() {
+        return suggestions.size();
+    }
+
+    @Override
+    public String getItem(int position) {
+        return suggestions.get(position);
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence prefix) {
+            FilterResults results = new FilterResults();
+            CompletionTrie current = trie();
+            List<String> found = prefix == null || current == null
+                    ? new ArrayList<>()
+                    : current.complete(prefix.toString());
+            results.values = found;
+            results.count = found.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence prefix, FilterResults results) {
+            suggestions.clear();
+            if (results.values != null) suggestions.addAll((List<String>) results.values);
+            if (suggestions.isEmpty()) notifyDataSetInvalidated();
+            else notifyDataSetChanged();
+        }
+    };
+}
@@ -1,6 +1,8 @@
 package bd.edu.seu.cookify.adapters;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,76 +10,141 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
-
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import bd.edu.seu.cookify.R;
 import bd.edu.seu.cookify.models.RecipeItem;
+import bd.edu.seu.cookify.utils.FacetIndex;
+import bd.edu.seu.cookify.utils.FuzzyNameSearch;
+import bd.edu.seu.cookify.utils.ImageLoader;
+import bd.edu.seu.cookify.utils.ImagePreloader;
+import bd.edu.seu.cookify.utils.NameSearchIndex;
+
+public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeVH>
+        implements ImagePreloader.Source {
+
+    private static final String CULTURE = "culture";
+    private static final String CATEGORY = "category";
 
-public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeVH> {
+    // Builds the facets of new items off the main thread
+    private static final Executor INDEX_EXECUTOR = Executors.newSingleThreadExecutor();
 
     private final Context context;
-    private final List<RecipeItem> allItems = new ArrayList<>();
-    private final List<RecipeItem> visibleItems = new ArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Visible rows, diffed on a background thread so only changed rows are rebound
+    private final AsyncListDiffer<RecipeItem> differ = new AsyncListDiffer<>(this, DIFF);
+    private final StableIds stableIds = new StableIds();
+    // Current items and their name search; read by background searches
+    private volatile Listing listing = new Listing(new ArrayList<>());
+    // Bumped by setItems, so facets built for replaced items are never installed
+    private int generation;
+    // Culture and category bitmaps over the listed items; selections survive item reloads
+    private FacetIndex<RecipeItem> facets = newFacets(new ArrayList<>());
+    private String culture;
+    private String category;
+    // Latest name search result, null until a search has run on the current items
+    private List<RecipeItem> searchResult;
 
     public RecipeAdapter(Context context) {
         this.context = context;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Replace the items. Their facets are built on a background thread and swapped in
+     * on the main thread; the name search is built by the first search that needs it
+     * @param items New items, copied
+     * @param onShown Run on the main thread once the items are shown, may be null
+     */
+    public void setItems(List<RecipeItem> items, Runnable onShown) {
+        Listing next = new Listing(items);
+        int current = ++generation;
+        INDEX_EXECUTOR.execute(() -> {
+            FacetIndex<RecipeItem> built = newFacets(next.items);
+            mainHandler.post(() -> {
+                if (current != generation) return; // Replaced while the facets were built
+                listing = next;
+                facets = built;
+                facets.select(CULTURE, culture);
+                facets.select(CATEGORY, category);
+                searchResult = null;
+                refresh();
+                if (onShown != null) onShown.run();
+            });
+        });
     }
 
-    public void setItems(List<RecipeItem> items) {
-        allItems.clear();
-        allItems.addAll(items);
-        visibleItems.clear();
-        visibleItems.addAll(items);
-        notifyDataSetChanged();
+    private static FacetIndex<RecipeItem> newFacets(List<RecipeItem> items) {
+        FacetIndex<RecipeItem> facets = new FacetIndex<>(items);
+        facets.addFacet(CULTURE, RecipeItem::getCulture);
+        facets.addFacet(CATEGORY, RecipeItem::getCategory);
+        return facets;
     }
 
+    /**
+     * Keep only one culture, together with the active category and name search
+     * @param culture Culture to show, "All" for every culture
+     */
     public void filterByCulture(String culture) {
-        visibleItems.clear();
-        if (culture == null || culture.equalsIgnoreCase("All")) {
-            visibleItems.addAll(allItems);
-        } else {
-            for (RecipeItem item : allItems) {
-                if (culture.equalsIgnoreCase(item.getCulture())) {
-                    visibleItems.add(item);
-                }
-            }
-        }
-        notifyDataSetChanged();
+        this.culture = culture;
+        facets.select(CULTURE, culture);
+        refresh();
+    }
+
+    /**
+     * Keep only one category, together with the active culture and name search
+     * @param category Category to show, "All" for every category
+     */
+    public void filterByCategory(String category) {
+        this.category = category;
+        facets.select(CATEGORY, category);
+        refresh();
+    }
+
+    /**
+     * Categories present in the current items, sorted
+     */
+    public List<String> getCategories() {
+        return facets.values(CATEGORY);
     }
 
     public void filterByName(String query) {
-        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
-        visibleItems.clear();
-        
+        showFiltered(searchByName(query));
+    }
+
+    /**
+     * Items matching the query, tolerating typos. Safe to call off the main thread
+     * @param query Search text
+     * @return Matching items, exact then prefix then substring then fuzzy matches
+     */
+    public List<RecipeItem> searchByName(String query) {
+        String q = query == null ? "" : query.trim();
         android.util.Log.d("RecipeAdapter", "Filtering by name: '" + q + "'");
-        android.util.Log.d("RecipeAdapter", "Total items to search: " + allItems.size());
-        
-        if (q.isEmpty()) {
-            visibleItems.addAll(allItems);
-            android.util.Log.d("RecipeAdapter", "Showing all items: " + visibleItems.size());
-        } else {
-            for (RecipeItem item : allItems) {
-                String itemName = item.getName();
-                if (itemName != null) {
-                    String normalizedName = itemName.toLowerCase(Locale.ROOT);
-                    if (normalizedName.contains(q)) {
-                        visibleItems.add(item);
-                        android.util.Log.d("RecipeAdapter", "Match found: " + itemName);
-                    }
-                } else {
-                    android.util.Log.d("RecipeAdapter", "Item has null name: " + item.getId());
-                }
-            }
-            android.util.Log.d("RecipeAdapter", "Filtered results: " + visibleItems.size());
-        }
-        notifyDataSetChanged();
+        return listing.nameSearch().search(q);
+    }
+
+    /**
+     * Show the result of {@link #searchByName}, narrowed by the selected culture and category
+     */
+    public void showFiltered(List<RecipeItem> items) {
+        searchResult = new ArrayList<>(items);
+        int shown = refresh();
+        android.util.Log.d("RecipeAdapter", "Filtered results: " + shown);
+    }
+
+    // Rebuild the visible list from the search result and the selected facets in one pass
+    private int refresh() {
+        List<RecipeItem> visible = searchResult == null ? facets.filtered() : facets.filter(searchResult);
+        differ.submitList(visible);
+        return visible.size();
     }
 
     @NonNull
@@ -89,15 +156,9 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeVH>
 
     @Override
     public void onBindViewHolder(@NonNull RecipeVH holder, int position) {
-        RecipeItem item = visibleItems.get(position);
+        RecipeItem item = differ.getCurrentList().get(position);
         holder.name.setText(item.getName());
-        Glide.with(context)
-                .load(item.getImageUrl())
-                .centerCrop()
-                .placeholder(R.drawable.placeholder_image)
-                .error(R.drawable.error_image)
-                .transition(DrawableTransitionOptions.withCrossFade())
-                .into(holder.image);
+        ImageLoader.load(item.getImageUrl(), holder.image);
 
         holder.itemView.setOnClickListener(v -> {
             android.content.Intent i = new android.content.Intent(context, bd.edu.seu.cookify.controllers.RecipeDetailsActivity.class);
@@ -112,7 +173,50 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeVH>
 
     @Override
     public int getItemCount() {
-        return visibleItems.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(keyOf(differ.getCurrentList().get(position)));
+    }
+
+    @Override
+    public String imageUrlAt(int position) {
+        return differ.getCurrentList().get(position).getImageUrl();
+    }
+
+    // Recipe id, or the name for items without one
+    private static String keyOf(RecipeItem item) {
+        return item.getId() != null ? item.getId() : "\u0000" + item.getName();
+    }
+
+    private static final DiffUtil.ItemCallback<RecipeItem> DIFF = new DiffUtil.ItemCallback<RecipeItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull RecipeItem a, @NonNull RecipeItem b) {
+            return keyOf(a).equals(keyOf(b));
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull RecipeItem a, @NonNull RecipeItem b) {
+            // Only what a row shows
+            return Objects.equals(a.getName(), b.getName()) && Objects.equals(a.getImageUrl(), b.getImageUrl());
+        }
+    };
+
+    // A snapshot of the items; the name search over them is built by the first search
+    private static class Listing {
+        final List<RecipeItem> items;
+        private FuzzyNameSearch<RecipeItem> nameSearch;
+
+        Listing(List<RecipeItem> items) {
+            this.items = new ArrayList<>(items);
+        }
+
+        synchronized FuzzyNameSearch<RecipeItem> nameSearch() {
+            if (nameSearch == null) nameSearch = new FuzzyNameSearch<>(new NameSearchIndex<>(items, RecipeItem::getName));
+            return nameSearch;
+        }
     }
 
     static class RecipeVH extends RecyclerView.ViewHolder {
@@ -125,4 +229,3 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeVH>
         }
     }
 }
-
@@ -1,5 +1,6 @@
 package bd.edu.seu.cookify.adapters;
 
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,28 +8,37 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.squareup.picasso.Picasso;
-
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import bd.edu.seu.cookify.R;
 import bd.edu.seu.cookify.models.Recipe;
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+import bd.edu.seu.cookify.utils.ImageLoader;
+import bd.edu.seu.cookify.utils.ImagePreloader;
 
 // Adapter class that connects Recipe data with RecyclerView UI and provides item click callback
-public class RecipeClickAdapter extends RecyclerView.Adapter<RecipeClickAdapter.RecipeViewHolder> {
+public class RecipeClickAdapter extends RecyclerView.Adapter<RecipeClickAdapter.RecipeViewHolder>
+        implements ImagePreloader.Source {
 
     public interface OnRecipeClickListener {
         void onRecipeClick(Recipe recipe);
     }
 
-    private List<Recipe> recipeList;
+    // Rows are diffed on a background thread, so only changed rows are rebound
+    private final AsyncListDiffer<Row> differ = new AsyncListDiffer<>(this, DIFF);
+    private final StableIds stableIds = new StableIds();
     private final OnRecipeClickListener listener;
 
     public RecipeClickAdapter(List<Recipe> recipeList, OnRecipeClickListener listener) {
-        this.recipeList = recipeList;
         this.listener = listener;
+        setHasStableIds(true);
+        updateList(recipeList);
     }
 
     @NonNull
@@ -41,17 +51,16 @@ public class RecipeClickAdapter extends RecyclerView.Adapter<RecipeClickAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull RecipeViewHolder holder, int position) {
-        Recipe recipe = recipeList.get(position);
+        Row row = differ.getCurrentList().get(position);
+        Recipe recipe = row.recipe;
         holder.textRecipeName.setText(recipe.getName());
         holder.textCategory.setText(recipe.getCategory());
 
-        Picasso.get()
-                .load(recipe.getImageUrl())
-                .fit()
-                .centerCrop()
-                .placeholder(R.drawable.placeholder_image)
-                .error(R.drawable.error_image)
-                .into(holder.imageRecipe);
+        String missing = row.missing;
+        holder.textMissing.setVisibility(missing == null ? View.GONE : View.VISIBLE);
+        holder.textMissing.setText(missing);
+
+        ImageLoader.load(recipe.getImageUrl(), holder.imageRecipe);
 
         holder.itemView.setOnClickListener(v -> {
             if (listener != null) listener.onRecipeClick(recipe);
@@ -60,23 +69,75 @@ public class RecipeClickAdapter extends RecyclerView.Adapter<RecipeClickAdapter.
 
     @Override
     public int getItemCount() {
-        return recipeList.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(differ.getCurrentList().get(position).key);
+    }
+
+    @Override
+    public String imageUrlAt(int position) {
+        return differ.getCurrentList().get(position).recipe.getImageUrl();
     }
 
     public void updateList(List<Recipe> newList) {
-        recipeList = newList;
-        notifyDataSetChanged();
+        List<Row> rows = new ArrayList<>(newList.size());
+        for (Recipe recipe : newList) rows.add(new Row(recipe, null));
+        differ.submitList(rows);
+    }
+
+    // Show pantry suggestions along with the ingredients each one is missing
+    public void updateSuggestions(List<RecipeSuggestion> suggestions) {
+        List<Row> rows = new ArrayList<>(suggestions.size());
+        for (RecipeSuggestion suggestion : suggestions) {
+            rows.add(new Row(suggestion.getRecipe(), suggestion.isComplete()
+                    ? null
+                    : "Missing: " + TextUtils.join(", ", suggestion.getMissingIngredients())));
+        }
+        differ.submitList(rows);
+    }
+
+    // A recipe with its optional "Missing: ..." label, only set for pantry suggestions
+    private static class Row {
+        final Recipe recipe;
+        final String missing;
+        // Recipe id, or name and category for recipes without one
+        final String key;
+
+        Row(Recipe recipe, String missing) {
+            this.recipe = recipe;
+            this.missing = missing;
+            key = recipe.getId() != null ? recipe.getId() : recipe.getName() + "\u0000" + recipe.getCategory();
+        }
     }
 
+    private static final DiffUtil.ItemCallback<Row> DIFF = new DiffUtil.ItemCallback<Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Row a, @NonNull Row b) {
+            return a.key.equals(b.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Row a, @NonNull Row b) {
+            return Objects.equals(a.recipe.getName(), b.recipe.getName())
+                    && Objects.equals(a.recipe.getCategory(), b.recipe.getCategory())
+                    && Objects.equals(a.recipe.getImageUrl(), b.recipe.getImageUrl())
+                    && Objects.equals(a.missing, b.missing);
+        }
+    };
+
     static class RecipeViewHolder extends RecyclerView.ViewHolder {
         ImageView imageRecipe;
-        TextView textRecipeName, textCategory;
+        TextView textRecipeName, textCategory, textMissing;
 
         public RecipeViewHolder(@NonNull View itemView) {
             super(itemView);
             imageRecipe = itemView.findViewById(R.id.imageRecipe);
             textRecipeName = itemView.findViewById(R.id.textRecipeName);
             textCategory = itemView.findViewById(R.id.textCategory);
+            textMissing = itemView.findViewById(R.id.textMissing);
         }
     }
 }
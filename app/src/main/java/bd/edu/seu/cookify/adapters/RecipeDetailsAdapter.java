@@ -0,0 +1,174 @@
+package bd.edu.seu.cookify.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import bd.edu.seu.cookify.R;
+import bd.edu.seu.cookify.utils.ImageLoader;
+
+/**
+ * Recipe details as recycled rows: the image, then an Ingredients and an Instructions
+ * section with one row per line. Only the rows on screen are inflated and bound, and
+ * the text of every line is laid out ahead of time on a background thread
+ */
+public class RecipeDetailsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private static final int TYPE_IMAGE = 0;
+    private static final int TYPE_SECTION = 1;
+    private static final int TYPE_LINE = 2;
+
+    // Builds text layouts for lines before they are bound
+    private static final Executor LAYOUT_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final Context context;
+    private final PrecomputedTextCompat.Params lineParams;
+    // Replaced as a whole, so a background pass can tell when its rows are stale
+    private volatile List<Row> rows = Collections.emptyList();
+
+    public RecipeDetailsAdapter(Context context) {
+        this.context = context;
+        setHasStableIds(true);
+        // Text metrics of the line layout, read once from a probe row so precomputed text matches it
+        TextView probe = (TextView) LayoutInflater.from(context).inflate(R.layout.item_detail_line, null, false);
+        lineParams = TextViewCompat.getTextMetricsParams(probe);
+    }
+
+    /**
+     * Show a recipe. Building the rows is cheap; line layout happens on the layout thread
+     * in display order, so the first screen is ready first
+     * @param imageUrl Recipe image, may be null
+     * @param ingredients Ingredient lines, may be null
+     * @param instructions Steps in order, may be null; numbered from 1
+     */
+    public void setRecipe(String imageUrl, List<String> ingredients, List<String> instructions) {
+        setRecipe(imageUrl, ingredients, null, instructions);
+    }
+
+    /**
+     * Show a recipe with the ingredients the pantry has checked off
+     * @param inPantry Per ingredient, whether the pantry has it; null to mark none
+     */
+    public void setRecipe(String imageUrl, List<String> ingredients, boolean[] inPantry, List<String> instructions) {
+        List<Row> next = new ArrayList<>();
+        next.add(new Row(TYPE_IMAGE, imageUrl));
+        next.add(new Row(TYPE_SECTION, "Ingredients"));
+        if (ingredients != null) {
+            for (int i = 0; i < ingredients.size(); i++) {
+                boolean owned = inPantry != null && i < inPantry.length && inPantry[i];
+                next.add(new Row(TYPE_LINE, (owned ? "\u2713 " : " ") + ingredients.get(i)));
+            }
+        }
+        next.add(new Row(TYPE_SECTION, "Instructions"));
+        if (instructions != null) {
+            int i = 1;
+            for (String step : instructions) {
+                next.add(new Row(TYPE_LINE, i + " " + step));
+                i++;
+            }
+        }
+        rows = next;
+        notifyDataSetChanged();
+        precomputeAsync(next);
+    }
+
+    // Lay out every line of the rows, stopping early if another recipe was set meanwhile
+    private void precomputeAsync(List<Row> shown) {
+        LAYOUT_EXECUTOR.execute(() -> {
+            for (Row row : shown) {
+                if (rows != shown) return;
+                if (row.type == TYPE_LINE && row.layout == null) precompute(row);
+            }
+        });
+    }
+
+    private PrecomputedTextCompat precompute(Row row) {
+        PrecomputedTextCompat text = PrecomputedTextCompat.create(row.text, lineParams);
+        row.layout = text;
+        return text;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return rows.get(position).type;
+    }
+
+    @NonNull @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(context);
+        if (viewType == TYPE_IMAGE) {
+            return new ImageVH(inflater.inflate(R.layout.item_detail_image, parent, false));
+        }
+        if (viewType == TYPE_SECTION) {
+            return new TextVH(inflater.inflate(R.layout.item_detail_section, parent, false));
+        }
+        TextVH holder = new TextVH(inflater.inflate(R.layout.item_detail_line, parent, false));
+        // Pin the metrics, text direction included, so precomputed text is always accepted
+        TextViewCompat.setTextMetricsParams(holder.text, lineParams);
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        Row row = rows.get(position);
+        if (row.type == TYPE_IMAGE) {
+            ImageLoader.load(row.text, ((ImageVH) holder).image);
+        } else if (row.type == TYPE_SECTION) {
+            ((TextVH) holder).text.setText(row.text);
+        } else {
+            // Laid out ahead of time off the main thread when possible
+            PrecomputedTextCompat layout = row.layout;
+            if (layout == null) layout = precompute(row);
+            TextViewCompat.setPrecomputedText(((TextVH) holder).text, layout);
+        }
+    }
+
+    @Override
+    public int getItemCount() { return rows.size(); }
+
+    // Rows never move within a recipe, so the position identifies them
+    @Override
+    public long getItemId(int position) { return position; }
+
+    private static class Row {
+        final int type;
+        // Image url for the image row, otherwise the text shown
+        final String text;
+        volatile PrecomputedTextCompat layout;
+
+        Row(int type, String text) {
+            this.type = type;
+            this.text = text == null ? "" : text;
+        }
+    }
+
+    static class ImageVH extends RecyclerView.ViewHolder {
+        final ImageView image;
+        ImageVH(@NonNull View itemView) {
+            super(itemView);
+            image = itemView.findViewById(R.id.detailImage);
+        }
+    }
+
+    static class TextVH extends RecyclerView.ViewHolder {
+        final TextView text;
+        TextVH(@NonNull View itemView) {
+            super(itemView);
+            text = (TextView) itemView;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package bd.edu.seu.cookify.adapters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives each row key (a recipe id or substitute name) a RecyclerView item id that
+ * stays the same for the adapter's lifetime, whichever list the row appears in
+ */
+final class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    long idOf(String key) {
+        Long id = ids.get(key);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
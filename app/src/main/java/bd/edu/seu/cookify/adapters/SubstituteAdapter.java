@@ -1,116 +1,276 @@
 package bd.edu.seu.cookify.adapters;
 
 import android.content.Context;
-import android.text.TextUtils;
+import android.graphics.Paint;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.LineHeightSpan;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
-import android.widget.LinearLayout;
 
 import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
-
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.Set;
 
 import bd.edu.seu.cookify.R;
 import bd.edu.seu.cookify.models.SubstituteItem;
+import bd.edu.seu.cookify.utils.FuzzyNameSearch;
+import bd.edu.seu.cookify.utils.ImageLoader;
+import bd.edu.seu.cookify.utils.NameSearchIndex;
+import bd.edu.seu.cookify.utils.SubstituteLookup;
 
 public class SubstituteAdapter extends RecyclerView.Adapter<SubstituteAdapter.VH> {
 
+    // Builds text layouts for rows before they are bound
+    private static final Executor LAYOUT_EXECUTOR = Executors.newSingleThreadExecutor();
+    // Rows laid out ahead on each side of a bound row
+    private static final int PREFETCH_ROWS = 8;
+    // Laid out rows kept; a few screens' worth, well above the prefetch window
+    private static final int BULLET_CACHE_SIZE = 64;
+
     private final Context context;
-    private final List<SubstituteItem> allItems = new ArrayList<>();
-    private final List<SubstituteItem> visibleItems = new ArrayList<>();
+    // Visible rows, diffed on a background thread so only changed rows are rebound
+    private final AsyncListDiffer<SubstituteItem> differ = new AsyncListDiffer<>(this, DIFF);
+    private final StableIds stableIds = new StableIds();
+    // Substitute lines of recently shown items, laid out once and reused by every bind.
+    // Replaced by setItems, so layout jobs still running for older items fill a map no one reads
+    private volatile Map<SubstituteItem, PrecomputedTextCompat> bulletTexts = newBulletCache();
+    // Items with a layout job queued for the current cache
+    private volatile Set<SubstituteItem> queued = ConcurrentHashMap.newKeySet();
+    private final PrecomputedTextCompat.Params bulletParams;
+    private final int bulletGap;
+    // Current items and their indexes; read by background searches
+    private volatile Listing listing = new Listing(new ArrayList<>());
 
     public SubstituteAdapter(Context context) {
         this.context = context;
+        setHasStableIds(true);
+        // Text metrics of the row layout, read once from a probe row so precomputed text matches it
+        View probe = LayoutInflater.from(context).inflate(R.layout.item_substitute, null, false);
+        bulletParams = TextViewCompat.getTextMetricsParams(probe.findViewById(R.id.textBullets));
+        bulletGap = Math.round(context.getResources().getDisplayMetrics().density * 4);
     }
 
+    /**
+     * Replace the items and show them all. Nothing is indexed here: the name search and
+     * substitute lookup are built by the first search, on the thread that runs it
+     * @param items New items, copied; may be null
+     */
     public void setItems(List<SubstituteItem> items) {
-        allItems.clear();
-        if (items != null) allItems.addAll(items);
-        filterByName("");
+        listing = new Listing(items == null ? new ArrayList<>() : items);
+        bulletTexts = newBulletCache();
+        queued = ConcurrentHashMap.newKeySet();
+        showFiltered(listing.items);
     }
 
     public void filterByName(String query) {
-        String q = query == null ? "" : query.trim().toLowerCase(Locale.getDefault());
-        visibleItems.clear();
-        if (TextUtils.isEmpty(q)) {
-            visibleItems.addAll(allItems);
-        } else {
-            for (SubstituteItem it : allItems) {
-                String name = it.getName() == null ? "" : it.getName();
-                if (name.toLowerCase(Locale.getDefault()).contains(q)) {
-                    visibleItems.add(it);
-                }
-            }
+        showFiltered(searchByName(query));
+    }
+
+    /**
+     * Items whose name matches the query, tolerating typos, followed by the items
+     * the query can replace. Safe to call off the main thread
+     * @param query Search text
+     * @return Name matches ranked exact, prefix, substring, fuzzy, then reverse matches
+     */
+    public List<SubstituteItem> searchByName(String query) {
+        String q = query == null ? "" : query.trim();
+        Listing current = listing;
+        if (q.isEmpty()) return new ArrayList<>(current.items);
+        List<SubstituteItem> results = current.nameSearch().search(q);
+
+        Set<SubstituteItem> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.addAll(results);
+        for (SubstituteItem item : current.lookup().search(q)) {
+            if (seen.add(item)) results.add(item);
         }
-        notifyDataSetChanged();
+        return results;
+    }
+
+    /**
+     * Show the result of {@link #searchByName}
+     */
+    public void showFiltered(List<SubstituteItem> items) {
+        precomputeAround(items, 0); // The first rows are bound right away
+        differ.submitList(new ArrayList<>(items));
     }
 
     @NonNull @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(context).inflate(R.layout.item_substitute, parent, false);
-        return new VH(v);
+        VH holder = new VH(v);
+        // Pin the metrics, text direction included, so precomputed text is always accepted
+        TextViewCompat.setTextMetricsParams(holder.textBullets, bulletParams);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull VH h, int position) {
-        SubstituteItem item = visibleItems.get(position);
+        List<SubstituteItem> rows = differ.getCurrentList();
+        SubstituteItem item = rows.get(position);
         h.textName.setText(item.getName() == null ? "" : item.getName());
         h.textAmount.setText(item.getAmount() == null ? "" : item.getAmount());
 
-        String url = item.getImageUrl();
-        Glide.with(context)
-                .load(url)
-                .placeholder(R.drawable.placeholder_image)
-                .error(R.drawable.error_image)
-                .centerCrop()
-                .transition(DrawableTransitionOptions.withCrossFade())
-                .into(h.imageThumb);
-
-        // Dynamic bullet list
-        h.containerBullets.removeAllViews();
-        java.util.List<String> subs = item.getSubstitutes();
-        if (subs != null) {
-            for (String s : subs) {
-                TextView tv = new TextView(context);
-                tv.setText("" + s);
-                tv.setTextColor(0xFF000000);
-                tv.setTextSize(14f);
-                LinearLayout.LayoutParams p = new LinearLayout.LayoutParams(
-                        ViewGroup.LayoutParams.WRAP_CONTENT,
-                        ViewGroup.LayoutParams.WRAP_CONTENT
-                );
-                p.topMargin = (int) (context.getResources().getDisplayMetrics().density * 4);
-                tv.setLayoutParams(p);
-                h.containerBullets.addView(tv);
+        ImageLoader.load(item.getImageUrl(), h.imageThumb);
+
+        // Substitute lines, laid out ahead of time off the main thread when possible
+        Map<SubstituteItem, PrecomputedTextCompat> texts = bulletTexts;
+        PrecomputedTextCompat bullets = texts.get(item);
+        if (bullets == null) bullets = precompute(item, texts);
+        h.textBullets.setVisibility(bullets.length() == 0 ? View.GONE : View.VISIBLE);
+        TextViewCompat.setPrecomputedText(h.textBullets, bullets);
+        precomputeAround(rows, position); // Rows about to scroll in, either way
+    }
+
+    // Lay out the substitute lines of the rows near a position on the layout thread,
+    // skipping rows already laid out or queued
+    private void precomputeAround(List<SubstituteItem> rows, int position) {
+        Map<SubstituteItem, PrecomputedTextCompat> texts = bulletTexts;
+        Set<SubstituteItem> queuedItems = queued;
+        List<SubstituteItem> pending = new ArrayList<>();
+        int end = Math.min(rows.size(), position + PREFETCH_ROWS + 1);
+        for (int p = Math.max(0, position - PREFETCH_ROWS); p < end; p++) {
+            SubstituteItem item = rows.get(p);
+            if (!texts.containsKey(item) && queuedItems.add(item)) pending.add(item);
+        }
+        if (pending.isEmpty()) return;
+        LAYOUT_EXECUTOR.execute(() -> {
+            for (SubstituteItem item : pending) {
+                if (texts != bulletTexts) return; // Items replaced, these layouts are not needed
+                if (!texts.containsKey(item)) precompute(item, texts);
+                queuedItems.remove(item);
+            }
+        });
+    }
+
+    // Access-ordered, so the rows scrolled furthest away are evicted first
+    private static Map<SubstituteItem, PrecomputedTextCompat> newBulletCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<SubstituteItem, PrecomputedTextCompat>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SubstituteItem, PrecomputedTextCompat> eldest) {
+                return size() > BULLET_CACHE_SIZE;
+            }
+        });
+    }
+
+    // Lay out an item's lines into the map of the items it belongs to
+    private PrecomputedTextCompat precompute(SubstituteItem item, Map<SubstituteItem, PrecomputedTextCompat> texts) {
+        PrecomputedTextCompat text = PrecomputedTextCompat.create(bulletText(item), bulletParams);
+        texts.put(item, text);
+        return text;
+    }
+
+    // One paragraph per substitute, each with the gap the old per-bullet views had above them
+    private CharSequence bulletText(SubstituteItem item) {
+        SpannableStringBuilder text = new SpannableStringBuilder();
+        List<String> subs = item.getSubstitutes();
+        if (subs == null) return text;
+        for (String s : subs) {
+            if (text.length() > 0) text.append('\n');
+            int start = text.length();
+            text.append(String.valueOf(s));
+            text.setSpan(new ParagraphGapSpan(bulletGap), start, text.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return text;
+    }
+
+    // Adds space above the first line of the paragraph it covers
+    private static class ParagraphGapSpan implements LineHeightSpan {
+        private final int gap;
+
+        ParagraphGapSpan(int gap) {
+            this.gap = gap;
+        }
+
+        @Override
+        public void chooseHeight(CharSequence text, int start, int end, int spanstartv, int lineHeight,
+                                 Paint.FontMetricsInt fm) {
+            if (start == ((Spanned) text).getSpanStart(this)) {
+                fm.ascent -= gap;
+                fm.top -= gap;
             }
         }
     }
 
     @Override
-    public int getItemCount() { return visibleItems.size(); }
+    public int getItemCount() { return differ.getCurrentList().size(); }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(keyOf(differ.getCurrentList().get(position)));
+    }
+
+    // Substitutes have no document id kept, the ingredient name identifies them
+    private static String keyOf(SubstituteItem item) {
+        return item.getName() == null ? "" : item.getName();
+    }
+
+    private static final DiffUtil.ItemCallback<SubstituteItem> DIFF = new DiffUtil.ItemCallback<SubstituteItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull SubstituteItem a, @NonNull SubstituteItem b) {
+            return keyOf(a).equals(keyOf(b));
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull SubstituteItem a, @NonNull SubstituteItem b) {
+            return Objects.equals(a.getAmount(), b.getAmount())
+                    && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                    && Objects.equals(a.getSubstitutes(), b.getSubstitutes());
+        }
+    };
+
+    // A snapshot of the items; its indexes are built by the first search that needs them
+    private static class Listing {
+        final List<SubstituteItem> items;
+        private FuzzyNameSearch<SubstituteItem> nameSearch;
+        // Word index over names and substitutes, for "what can honey replace"
+        private SubstituteLookup lookup;
+
+        Listing(List<SubstituteItem> items) {
+            this.items = new ArrayList<>(items);
+        }
+
+        // Typo-tolerant name search
+        synchronized FuzzyNameSearch<SubstituteItem> nameSearch() {
+            if (nameSearch == null) nameSearch = new FuzzyNameSearch<>(new NameSearchIndex<>(items, SubstituteItem::getName));
+            return nameSearch;
+        }
+
+        synchronized SubstituteLookup lookup() {
+            if (lookup == null) lookup = new SubstituteLookup(items);
+            return lookup;
+        }
+    }
 
     static class VH extends RecyclerView.ViewHolder {
         final TextView textName;
         final TextView textAmount;
         final ImageView imageThumb;
-        final LinearLayout containerBullets;
+        final TextView textBullets;
         VH(@NonNull View itemView) {
             super(itemView);
             textName = itemView.findViewById(R.id.textName);
             textAmount = itemView.findViewById(R.id.textAmount);
             imageThumb = itemView.findViewById(R.id.imageThumb);
-            containerBullets = itemView.findViewById(R.id.containerBullets);
+            textBullets = itemView.findViewById(R.id.textBullets);
         }
     }
 }
-
-
@@ -2,7 +2,6 @@ package bd.edu.seu.cookify.controllers;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.TextUtils;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.EditText;
@@ -21,16 +20,39 @@ import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import bd.edu.seu.cookify.R;
 import bd.edu.seu.cookify.adapters.RecipeAdapter;
 import bd.edu.seu.cookify.models.RecipeItem;
+import bd.edu.seu.cookify.utils.ImagePreloader;
+import bd.edu.seu.cookify.utils.RecipeSearchDatabase;
+import bd.edu.seu.cookify.utils.RecipeSearchSync;
+import bd.edu.seu.cookify.utils.RemoteRecipeSearch;
+import bd.edu.seu.cookify.utils.SearchPipeline;
 
 public class BrowseActivity extends AppCompatActivity {
 
+    // Full-text matches shown after the name matches
+    private static final int FULL_TEXT_LIMIT = 50;
+    // Recipes per server-side prefix query
+    private static final int REMOTE_PAGE_SIZE = 50;
+    // Offered in remote mode, where no listing is downloaded to collect categories from; Home's tabs
+    private static final List<String> KNOWN_CATEGORIES = Arrays.asList("Breakfast", "Lunch", "Dinner", "Dessert");
+
     private RecipeAdapter adapter; // uses RecipeItem + Glide
+    private ImagePreloader imagePreloader; // Loads images of the rows about to scroll in
     private final List<RecipeItem> all = new ArrayList<>();
+    private EditText search;
+    private Spinner categorySpinner;
+    // Debounced background name search, only the latest query reaches the adapter
+    private SearchPipeline<List<RecipeItem>> searchPipeline;
+    // Large catalogs are searched by name prefix on Firestore instead of downloaded
+    private RemoteRecipeSearch remoteSearch;
+    private volatile boolean remoteMode;
+    private volatile String selectedCulture = "All";
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -41,11 +63,20 @@ public class BrowseActivity extends AppCompatActivity {
         recycler.setLayoutManager(new LinearLayoutManager(this));
         adapter = new RecipeAdapter(this);
         recycler.setAdapter(adapter);
+        imagePreloader = ImagePreloader.attach(recycler, adapter, R.id.imageRecipe); // Load images of the rows scrolling in
 
         Spinner spinner = findViewById(R.id.spinnerCulture);
         setupSpinner(spinner);
+        categorySpinner = findViewById(R.id.spinnerCategory);
+        setupCategorySpinner(new ArrayList<>());
+
+        RecipeSearchDatabase fullText = RecipeSearchDatabase.getInstance(this);
+        searchPipeline = new SearchPipeline<>(query -> search(fullText, query), (query, result) -> {
+            adapter.showFiltered(result);
+            Log.d("BrowseActivity", "Filtered recipes by name: " + query);
+        });
 
-        EditText search = findViewById(R.id.editSearch);
+        search = findViewById(R.id.editSearch);
         
         // Real-time search as user types
         search.addTextChangedListener(new android.text.TextWatcher() {
@@ -54,7 +85,7 @@ public class BrowseActivity extends AppCompatActivity {
             
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                performNameFilter(s.toString());
+                searchPipeline.submit(s.toString());
             }
             
             @Override
@@ -82,16 +113,19 @@ public class BrowseActivity extends AppCompatActivity {
         });
 
         setupBottomNav();
-        fetchAll();
+        remoteSearch = new RemoteRecipeSearch(FirebaseFirestore.getInstance());
+        chooseSearchMode();
 
         spinner.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
             @Override public void onItemSelected(android.widget.AdapterView<?> parent, View view, int position, long id) {
                 String selected = (String) parent.getItemAtPosition(position);
                 if ("Select".equalsIgnoreCase(selected) || "All".equalsIgnoreCase(selected)) {
-                    adapter.filterByCulture("All");
-                } else {
-                    adapter.filterByCulture(selected);
+                    selected = "All";
                 }
+                selectedCulture = selected;
+                adapter.filterByCulture(selected);
+                // The server only returned one culture's page, ask again
+                if (remoteMode) performNameFilter(search.getText().toString());
             }
             @Override public void onNothingSelected(android.widget.AdapterView<?> parent) { }
         });
@@ -129,18 +163,90 @@ public class BrowseActivity extends AppCompatActivity {
                 });
     }
 
+    // Categories come from the loaded recipes, or the known ones in remote mode;
+    // filtering keeps the culture and search text
+    private void setupCategorySpinner(List<String> categories) {
+        List<String> options = new ArrayList<>();
+        options.add("Category");
+        options.addAll(categories);
+        options.add("All");
+        ArrayAdapter<String> arrayAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, options);
+        arrayAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        categorySpinner.setAdapter(arrayAdapter);
+        categorySpinner.setSelection(0);
+        categorySpinner.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
+            @Override public void onItemSelected(android.widget.AdapterView<?> parent, View view, int position, long id) {
+                String selected = (String) parent.getItemAtPosition(position);
+                adapter.filterByCategory(position == 0 ? "All" : selected);
+            }
+            @Override public void onNothingSelected(android.widget.AdapterView<?> parent) { }
+        });
+    }
+
+    // Name matches first, then full-text matches over ingredients and instructions.
+    // Runs on the search worker
+    private List<RecipeItem> search(RecipeSearchDatabase fullText, String query) {
+        List<RecipeItem> results = new ArrayList<>(remoteMode ? searchRemote(query) : adapter.searchByName(query));
+        if (query.trim().isEmpty()) return results;
+
+        Set<String> seen = new HashSet<>();
+        for (RecipeItem item : results) seen.add(item.getId());
+        try {
+            for (RecipeItem item : fullText.search(query, FULL_TEXT_LIMIT)) {
+                if (seen.add(item.getId())) results.add(item);
+            }
+        } catch (RuntimeException e) {
+            Log.e("BrowseActivity", "Full-text search failed", e);
+        }
+        return results;
+    }
+
+    // Server-side name prefix search; empty when offline, the full-text index still answers
+    private List<RecipeItem> searchRemote(String query) {
+        try {
+            return remoteSearch.search(query, selectedCulture, REMOTE_PAGE_SIZE);
+        } catch (Exception e) {
+            Log.e("BrowseActivity", "Remote search failed", e);
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        }
+    }
+
+    // Download every recipe for small catalogs, search on the server above the threshold
+    private void chooseSearchMode() {
+        int threshold = getResources().getInteger(R.integer.remote_search_threshold);
+        remoteSearch.countRecipes()
+                .addOnSuccessListener(count -> {
+                    Log.d("BrowseActivity", "Catalog has " + count + " recipes, threshold " + threshold);
+                    if (count > threshold) {
+                        remoteMode = true;
+                        setupCategorySpinner(KNOWN_CATEGORIES);
+                        // The sync reads in pages, so the offline full-text index is kept at any size
+                        RecipeSearchSync.syncIfStale(this);
+                        performNameFilter(search.getText().toString());
+                    } else {
+                        loadLocally();
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    // Counting needs the server; fall back to whatever fetchAll can read
+                    Log.w("BrowseActivity", "Could not count recipes", e);
+                    loadLocally();
+                });
+    }
+
+    // Small catalog: download it and search it on the device; the same read
+    // refreshes the offline full-text index
+    private void loadLocally() {
+        fetchAll();
+    }
+
+    // Search right away, skipping the typing debounce
     private void performNameFilter(String text) {
         String searchText = text == null ? "" : text.trim();
         Log.d("BrowseActivity", "Searching for: '" + searchText + "'");
         Log.d("BrowseActivity", "Total recipes loaded: " + all.size());
-        
-        if (TextUtils.isEmpty(searchText)) {
-            adapter.filterByName("");
-            Log.d("BrowseActivity", "Showing all recipes");
-        } else {
-            adapter.filterByName(searchText);
-            Log.d("BrowseActivity", "Filtering recipes by name: " + searchText);
-        }
+        searchPipeline.submitNow(searchText);
     }
 
     private void setupBottomNav() {
@@ -169,6 +275,7 @@ public class BrowseActivity extends AppCompatActivity {
                         String name = d.getString("name");
                         String imageUrl = d.getString("imageUrl");
                         String culture = d.getString("culture");
+                        String category = d.getString("category");
                         
                         Log.d("BrowseActivity", "Recipe: " + name + " (ID: " + d.getId() + ")");
                         
@@ -176,13 +283,19 @@ public class BrowseActivity extends AppCompatActivity {
                                 d.getId(),
                                 name,
                                 imageUrl,
-                                culture
+                                culture,
+                                category
                         );
                         all.add(item);
                     }
                     
+                    RecipeSearchSync.indexIfStale(this, snap); // Instead of a second, paged download
                     Log.d("BrowseActivity", "Loaded " + all.size() + " recipes into adapter");
-                    adapter.setItems(all);
+                    adapter.setItems(all, () -> {
+                        setupCategorySpinner(adapter.getCategories());
+                        // Re-apply a query typed while loading
+                        if (search.length() > 0) performNameFilter(search.getText().toString());
+                    });
                     
                     // Show success message
                     Toast.makeText(this, "Loaded " + all.size() + " recipes", Toast.LENGTH_SHORT).show();
@@ -192,4 +305,11 @@ public class BrowseActivity extends AppCompatActivity {
                     Toast.makeText(this, "Failed to load recipes: " + e.getMessage(), Toast.LENGTH_LONG).show();
                 });
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void onDestroy() {
+        searchPipeline.shutdown(); // Drop pending searches for this screen
+        imagePreloader.detach();
+        super.onDestroy();
+    }
+}
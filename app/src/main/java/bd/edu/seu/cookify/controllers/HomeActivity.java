@@ -17,12 +17,25 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import bd.edu.seu.cookify.R;
+import bd.edu.seu.cookify.adapters.CompletionAdapter;
 import bd.edu.seu.cookify.adapters.RecipeClickAdapter;
 import bd.edu.seu.cookify.models.Recipe;
 import bd.edu.seu.cookify.navigate.NavigationHelper;
+import bd.edu.seu.cookify.utils.CompletionTrie;
+import bd.edu.seu.cookify.utils.FuzzyNameSearch;
+import bd.edu.seu.cookify.utils.ImagePreloader;
+import bd.edu.seu.cookify.utils.NameSearchIndex;
+import bd.edu.seu.cookify.utils.RecipeQueryCache;
+import bd.edu.seu.cookify.utils.SearchPipeline;
 
 public class HomeActivity extends AppCompatActivity {
 
@@ -30,10 +43,21 @@ public class HomeActivity extends AppCompatActivity {
     private RecyclerView recyclerRecipes;
     // Adapter to manage how recipes are displayed
     private RecipeClickAdapter adapter;
+    // Loads images of the rows about to scroll in, detached with the screen
+    private ImagePreloader imagePreloader;
     // Keeps all recipes fetched from Firestore
     private final List<Recipe> allRecipes = new ArrayList<>();
-    // Search bar input
-    private EditText editSearch;
+    // The category shown and its recipes, read by background searches
+    private volatile Listing listing = new Listing("All", new ArrayList<>());
+    // Recent (category, query) lookups as recipe ids, so repeating one skips Firestore and the name search
+    private final RecipeQueryCache queryCache = new RecipeQueryCache(QUERY_CACHE_SIZE, QUERY_CACHE_MAX_AGE_MS);
+    // Every recipe loaded so far, to turn cached ids back into recipes
+    private final Map<String, Recipe> recipesById = new ConcurrentHashMap<>();
+    // Search bar input, with name suggestions as the user types
+    private AutoCompleteTextView editSearch;
+    private CompletionAdapter completionAdapter;
+    // Debounced background search, only the latest query reaches the adapter
+    private SearchPipeline<List<Recipe>> searchPipeline;
     // Holds the category buttons (All, Breakfast, etc.)
     private LinearLayout categoryTabs;
     // TextView to show when no recipes are available
@@ -45,6 +69,12 @@ public class HomeActivity extends AppCompatActivity {
     private Button selectedCategoryButton = null;
     // Predefined categories
     private final String[] categories = {"All", "Breakfast", "Lunch", "Dinner", "Dessert"};
+    // Suggestions shown under the search bar
+    private static final int MAX_COMPLETIONS = 8;
+    // Category listings and searches remembered by the query cache
+    private static final int QUERY_CACHE_SIZE = 64;
+    // After this long a cached category is fetched from Firestore again, picking up edits made elsewhere
+    private static final long QUERY_CACHE_MAX_AGE_MS = 5 * 60 * 1000;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -70,6 +100,7 @@ public class HomeActivity extends AppCompatActivity {
 
         recyclerRecipes.setLayoutManager(new LinearLayoutManager(this));
         recyclerRecipes.setAdapter(adapter);
+        imagePreloader = ImagePreloader.attach(recyclerRecipes, adapter, R.id.imageRecipe); // Load images of the rows scrolling in
 
         setupCategoryTabs(); // Build the category buttons
         loadRecipes("All");  // Load all recipes initially
@@ -77,10 +108,16 @@ public class HomeActivity extends AppCompatActivity {
         // Logout button action
         findViewById(bd.edu.seu.cookify.R.id.iconLogout).setOnClickListener(v -> showLogoutDialog());
 
-        // Add search listener: filters recipes as the user types
+        // Recipe name suggestions; picking one fills the search bar and filters
+        completionAdapter = new CompletionAdapter(this);
+        editSearch.setAdapter(completionAdapter);
+
+        // Add search listener: filters recipes once the user pauses typing
+        searchPipeline = new SearchPipeline<>(this::search,
+                (query, filtered) -> showSearchResults(filtered));
         editSearch.addTextChangedListener(new TextWatcher() {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterBySearch(s.toString());
+                searchPipeline.submit(s.toString());
             }
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             public void afterTextChanged(Editable s) {}
@@ -137,10 +174,17 @@ public class HomeActivity extends AppCompatActivity {
         }
     }
 
-    // Loads recipes from Firestore for a specific category
+    // Shows a category, from the query cache when it was loaded recently, else from Firestore
     private void loadRecipes(String category) {
         textEmpty.setVisibility(View.GONE);
 
+        List<Recipe> cached = resolve(queryCache.get(category, ""));
+        if (cached != null) {
+            Log.d("HomeActivity", "Category from cache: " + category);
+            showCategory(category, cached);
+            return;
+        }
+
         // Firestore query: all recipes or filtered by category
         Query query = category.equals("All")
                 ? db.collection("recipes")
@@ -153,35 +197,101 @@ public class HomeActivity extends AppCompatActivity {
                 return;
             }
 
-            // Clear old list and add new recipes
-            allRecipes.clear();
+            List<Recipe> loaded = new ArrayList<>();
+            List<String> ids = new ArrayList<>();
             for (DocumentSnapshot doc : task.getResult()) {
                 Recipe r = doc.toObject(Recipe.class);
                 if (r != null) {
                     r.setId(doc.getId());
-                    allRecipes.add(r);
+                    loaded.add(r);
+                    ids.add(r.getId());
                 }
             }
 
-            // Update adapter with new list
-            adapter.updateList(new ArrayList<>(allRecipes));
-            textEmpty.setVisibility(allRecipes.isEmpty() ? View.VISIBLE : View.GONE);
-
-            // If something is typed in the search bar, apply filtering
-            String q = editSearch.getText().toString();
-            if (!q.isEmpty()) filterBySearch(q);
+            // Cached lookups of any category may be stale once the recipes changed
+            if (recipeSetChanged(category, loaded)) queryCache.invalidate();
+            for (Recipe r : loaded) recipesById.put(r.getId(), r);
+            queryCache.put(category, "", ids);
+            showCategory(category, loaded);
         });
     }
 
-    // Filters recipes by search text
-    private void filterBySearch(String query) {
-        List<Recipe> filtered = new ArrayList<>();
-        for (Recipe r : allRecipes) {
-            String name = r.getName();
-            if (name != null && name.toLowerCase().contains(query.toLowerCase())) {
-                filtered.add(r);
+    // Replaces the shown recipes and re-applies the search text
+    private void showCategory(String category, List<Recipe> recipes) {
+        allRecipes.clear();
+        allRecipes.addAll(recipes);
+        listing = new Listing(category, allRecipes);
+        setNameCompletions(allRecipes);
+
+        // Update adapter with new list
+        adapter.updateList(new ArrayList<>(allRecipes));
+        textEmpty.setVisibility(allRecipes.isEmpty() ? View.VISIBLE : View.GONE);
+
+        // If something is typed in the search bar, apply filtering
+        String q = editSearch.getText().toString();
+        if (!q.isEmpty()) searchPipeline.submitNow(q);
+        else searchPipeline.cancel(); // A search still running over the old list must not land
+    }
+
+    // Runs on the search worker: cached ids when this lookup was done recently, else a name search
+    private List<Recipe> search(String query) {
+        Listing current = listing;
+        String q = RecipeQueryCache.normalize(query);
+        if (q.isEmpty()) return new ArrayList<>(current.recipes);
+
+        List<Recipe> cached = resolve(queryCache.get(current.category, q));
+        if (cached != null) return cached;
+        List<Recipe> found = current.nameSearch().search(q);
+        List<String> ids = new ArrayList<>();
+        for (Recipe r : found) ids.add(r.getId());
+        queryCache.put(current.category, q, ids);
+        return found;
+    }
+
+    // Recipes for cached ids, or null if any of them is no longer known
+    private List<Recipe> resolve(List<String> ids) {
+        if (ids == null) return null;
+        List<Recipe> recipes = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Recipe r = id == null ? null : recipesById.get(id);
+            if (r == null) return null;
+            recipes.add(r);
+        }
+        return recipes;
+    }
+
+    // True if a fresh load shows recipes added, edited or removed since they were cached
+    private boolean recipeSetChanged(String category, List<Recipe> loaded) {
+        Set<String> loadedIds = new HashSet<>();
+        for (Recipe r : loaded) {
+            loadedIds.add(r.getId());
+            Recipe known = recipesById.get(r.getId());
+            if (known == null
+                    || !Objects.equals(known.getName(), r.getName())
+                    || !Objects.equals(known.getCategory(), r.getCategory())
+                    || !Objects.equals(known.getImageUrl(), r.getImageUrl())) {
+                return true;
             }
         }
+        for (Recipe known : recipesById.values()) {
+            boolean inCategory = category.equals("All") || category.equals(known.getCategory());
+            if (inCategory && !loadedIds.contains(known.getId())) return true;
+        }
+        return false;
+    }
+
+    // Suggest names of the loaded recipes, names shared by more recipes first.
+    // The trie is built on the suggestion thread when first needed
+    private void setNameCompletions(List<Recipe> recipes) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (Recipe r : recipes) {
+            if (r.getName() != null) weights.merge(r.getName(), 1, Integer::sum);
+        }
+        completionAdapter.setSource(() -> new CompletionTrie(weights, MAX_COMPLETIONS));
+    }
+
+    // Shows the recipes matching the latest search text
+    private void showSearchResults(List<Recipe> filtered) {
         adapter.updateList(filtered);
         textEmpty.setVisibility(filtered.isEmpty() ? View.VISIBLE : View.GONE);
     }
@@ -194,7 +304,11 @@ public class HomeActivity extends AppCompatActivity {
                 .setPositiveButton("Yes", (d, w) -> {
                     FirebaseAuth.getInstance().signOut(); // Log out from Firebase
                     // Clear any cached data
+                    searchPipeline.cancel();
                     allRecipes.clear();
+                    listing = new Listing("All", new ArrayList<>());
+                    queryCache.invalidate();
+                    recipesById.clear();
                     adapter.updateList(new ArrayList<>());
                     NavigationHelper.navigate(this, LoginActivity.class, false); // Go to Login screen
                     finish(); // Close HomeActivity
@@ -203,6 +317,13 @@ public class HomeActivity extends AppCompatActivity {
                 .show();
     }
 
+    @Override
+    protected void onDestroy() {
+        searchPipeline.shutdown(); // Drop pending searches for this screen
+        imagePreloader.detach();
+        super.onDestroy();
+    }
+
     // Checks premium flag before opening Pantry
     private void handlePantryNavigation() {
         if (FirebaseAuth.getInstance().getCurrentUser() == null) {
@@ -213,4 +334,21 @@ public class HomeActivity extends AppCompatActivity {
         // Always open Pantry so non-premium users can see the upgrade screen
         NavigationHelper.navigate(this, PantryActivity.class, false);
     }
+
+    // A category's recipes; the name search over them is built by the first search that misses the cache
+    private static class Listing {
+        final String category;
+        final List<Recipe> recipes;
+        private FuzzyNameSearch<Recipe> nameSearch;
+
+        Listing(String category, List<Recipe> recipes) {
+            this.category = category;
+            this.recipes = new ArrayList<>(recipes);
+        }
+
+        synchronized FuzzyNameSearch<Recipe> nameSearch() {
+            if (nameSearch == null) nameSearch = new FuzzyNameSearch<>(new NameSearchIndex<>(recipes, Recipe::getName));
+            return nameSearch;
+        }
+    }
 }
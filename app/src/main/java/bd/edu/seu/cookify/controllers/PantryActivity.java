@@ -1,8 +1,9 @@
 package bd.edu.seu.cookify.controllers;
 
+import android.content.Context;
 import android.os.Bundle;
 import android.view.View;
-import android.widget.EditText;
+import android.widget.AutoCompleteTextView;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -17,22 +18,33 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import bd.edu.seu.cookify.R;
-import bd.edu.seu.cookify.models.Recipe;
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+import bd.edu.seu.cookify.models.SubstituteItem;
+import bd.edu.seu.cookify.adapters.CompletionAdapter;
 import bd.edu.seu.cookify.adapters.PantryItemAdapter;
 import bd.edu.seu.cookify.adapters.RecipeClickAdapter;
 import bd.edu.seu.cookify.navigate.NavigationHelper;
+import bd.edu.seu.cookify.utils.ImagePreloader;
+import bd.edu.seu.cookify.utils.PantryMatchService;
+import bd.edu.seu.cookify.utils.RecipeCatalogLoader;
 import bd.edu.seu.cookify.utils.RecipeMapper;
 
 public class PantryActivity extends AppCompatActivity {
 
+    // Maximum number of ranked recipe suggestions shown below the pantry
+    private static final int MAX_SUGGESTIONS = 20;
+    // Ingredient suggestions shown under the input field
+    private static final int MAX_COMPLETIONS = 8;
+
     // Layouts for Premium and Non-Premium users
     private LinearLayout layoutPremium, layoutNonPremium;
-    private EditText editItem;          // Input field to add pantry items
+    private AutoCompleteTextView editItem; // Input field to add pantry items, suggests ingredients
     private ImageButton buttonAdd;      // Button to add new item
     private RecyclerView recyclerPantry, recyclerRecipes; // Lists to display pantry items & suggested recipes
 
@@ -40,6 +52,9 @@ public class PantryActivity extends AppCompatActivity {
     private final List<String> pantryItems = new ArrayList<>();
     private PantryItemAdapter pantryAdapter;    // Adapter to display pantry items
     private RecipeClickAdapter recipeAdapter;   // Adapter to display suggested recipes
+    private ImagePreloader imagePreloader;      // Loads images of the suggestions about to scroll in
+    // Matches pantry snapshots on a background worker, latest snapshot wins
+    private final PantryMatchService matchService = new PantryMatchService();
 
     // Firebase authentication and Firestore database
     private FirebaseAuth mAuth;
@@ -85,6 +100,11 @@ public class PantryActivity extends AppCompatActivity {
         recyclerPantry.setLayoutManager(new LinearLayoutManager(this));
         recyclerRecipes.setLayoutManager(new LinearLayoutManager(this));
 
+        // Match against the packaged binary catalog, read lazily on first use
+        Context appContext = getApplicationContext();
+        RecipeMapper.setCatalogSource(() -> RecipeCatalogLoader.openAssetCatalog(appContext));
+        matchService.prepare(); // Build the index on the match worker while the pantry loads
+
         // Initialize pantry adapter
         pantryAdapter = new PantryItemAdapter(pantryItems);
         pantryAdapter.setOnItemRemovedListener(() -> loadSuggestedRecipes()); // Refresh recipes if item removed
@@ -96,14 +116,38 @@ public class PantryActivity extends AppCompatActivity {
             i.putExtra("name", recipe.getName());
             i.putExtra("category", recipe.getCategory());
             i.putExtra("imageUrl", recipe.getImageUrl());
+            i.putStringArrayListExtra("pantryItems", new ArrayList<>(pantryItems)); // Check off what the pantry has
             startActivity(i); // Open RecipeDetailsActivity
         });
         recyclerRecipes.setAdapter(recipeAdapter);
+        imagePreloader = ImagePreloader.attach(recyclerRecipes, recipeAdapter, R.id.imageRecipe); // Load images of the rows scrolling in
+
+        // Suggest catalog ingredients, most used first, so added items match recipes.
+        // The catalog is read on the suggestion thread the first time the user types
+        CompletionAdapter completionAdapter = new CompletionAdapter(this);
+        completionAdapter.setSource(() -> RecipeMapper.getIngredientCompletions(MAX_COMPLETIONS));
+        editItem.setAdapter(completionAdapter);
+
+        // Let pantry items stand in for the ingredients they can substitute
+        loadSubstitutes();
 
         // Check if user is premium and initialize UI
         checkPremiumAndInit();
     }
 
+    // Load the substitutes collection and use it for matching
+    private void loadSubstitutes() {
+        db.collection("substitutes").get().addOnSuccessListener(snap -> {
+            List<SubstituteItem> substitutes = new ArrayList<>();
+            for (QueryDocumentSnapshot d : snap) substitutes.add(SubstituteItem.fromDocument(d));
+            // Suggestions computed without substitutes are refreshed once they apply
+            matchService.updateSubstitutes(substitutes, () -> {
+                if (!pantryItems.isEmpty()) loadSuggestedRecipes();
+            });
+        }).addOnFailureListener(e ->
+                android.util.Log.e("PantryActivity", "Error fetching substitutes", e));
+    }
+
     // Check if user is premium and configure UI accordingly
     private void checkPremiumAndInit() {
         clearPantryData(); // Remove previous pantry & recipe data
@@ -134,6 +178,7 @@ public class PantryActivity extends AppCompatActivity {
     // Clear pantry items and suggested recipes
     private void clearPantryData() {
         pantryItems.clear();
+        matchService.cancel();
         pantryAdapter.notifyDataSetChanged();
         recipeAdapter.updateList(new ArrayList<>());
     }
@@ -191,17 +236,22 @@ public class PantryActivity extends AppCompatActivity {
     // Load suggested recipes based on current pantry items
     private void loadSuggestedRecipes() {
         if (pantryItems.isEmpty()) {
+            matchService.cancel();
             recipeAdapter.updateList(new ArrayList<>());
             return;
         }
 
         android.util.Log.d("PantryActivity", "Loading suggested recipes for pantry items: " + pantryItems);
 
-        // Map pantry items to recipes using utility class
-        List<Recipe> matches = RecipeMapper.getMappedRecipes(pantryItems);
+        // Rank recipes by pantry coverage in the background, partial matches included.
+        // Only the result for the latest pantry snapshot is delivered
+        matchService.submit(pantryItems, MAX_SUGGESTIONS, this::showSuggestedRecipes);
+    }
 
+    // Show the suggestions computed for the current pantry
+    private void showSuggestedRecipes(List<RecipeSuggestion> matches) {
         android.util.Log.d("PantryActivity", "Total matches found: " + matches.size());
-        recipeAdapter.updateList(matches);
+        recipeAdapter.updateSuggestions(matches);
 
         // Show feedback to user
         if (matches.isEmpty()) {
@@ -210,4 +260,11 @@ public class PantryActivity extends AppCompatActivity {
             Toast.makeText(this, "Found " + matches.size() + " suggested recipes", Toast.LENGTH_SHORT).show();
         }
     }
+
+    @Override
+    protected void onDestroy() {
+        matchService.shutdown(); // Drop pending work and results for this screen
+        if (imagePreloader != null) imagePreloader.detach(); // Not attached when onCreate sent the user to login
+        super.onDestroy();
+    }
 }
\ No newline at end of file
@@ -2,20 +2,22 @@ package bd.edu.seu.cookify.controllers;
 
 import android.os.Bundle;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.List;
 
 import bd.edu.seu.cookify.R;
+import bd.edu.seu.cookify.adapters.RecipeDetailsAdapter;
+import bd.edu.seu.cookify.models.Recipe;
+import bd.edu.seu.cookify.utils.RecipeMapper;
 
 public class RecipeDetailsActivity extends AppCompatActivity {
 
@@ -26,9 +28,11 @@ public class RecipeDetailsActivity extends AppCompatActivity {
 
         ImageView iconBack = findViewById(R.id.iconBack);
         TextView textTitle = findViewById(R.id.textTitle);
-        ImageView detailImage = findViewById(R.id.detailImage);
-        LinearLayout containerIngredients = findViewById(R.id.containerIngredients);
-        LinearLayout containerInstructions = findViewById(R.id.containerInstructions);
+        RecyclerView recyclerDetails = findViewById(R.id.recyclerDetails);
+
+        RecipeDetailsAdapter adapter = new RecipeDetailsAdapter(this);
+        recyclerDetails.setLayoutManager(new LinearLayoutManager(this));
+        recyclerDetails.setAdapter(adapter);
 
         iconBack.setOnClickListener(v -> finish());
 
@@ -40,7 +44,7 @@ public class RecipeDetailsActivity extends AppCompatActivity {
                     .collection("recipes")
                     .document(recipeId)
                     .get()
-                    .addOnSuccessListener(doc -> populateUiFromDocument(doc, textTitle, detailImage, containerIngredients, containerInstructions))
+                    .addOnSuccessListener(doc -> populateUiFromDocument(doc, textTitle, adapter))
                     .addOnFailureListener(e -> finish());
         } else if (recipeName != null && !recipeName.isEmpty()) {
             FirebaseFirestore.getInstance()
@@ -50,7 +54,7 @@ public class RecipeDetailsActivity extends AppCompatActivity {
                     .get()
                     .addOnSuccessListener(query -> {
                         if (!query.isEmpty()) {
-                            populateUiFromDocument(query.getDocuments().get(0), textTitle, detailImage, containerIngredients, containerInstructions);
+                            populateUiFromDocument(query.getDocuments().get(0), textTitle, adapter);
                         } else {
                             finish();
                         }
@@ -63,9 +67,7 @@ public class RecipeDetailsActivity extends AppCompatActivity {
 
     private void populateUiFromDocument(DocumentSnapshot doc,
                                         TextView textTitle,
-                                        ImageView detailImage,
-                                        LinearLayout containerIngredients,
-                                        LinearLayout containerInstructions) {
+                                        RecipeDetailsAdapter adapter) {
         String name = doc.getString("name");
         String imageUrl = doc.getString("imageUrl");
         List<String> ingredients = (List<String>) doc.get("ingredients");
@@ -73,39 +75,15 @@ public class RecipeDetailsActivity extends AppCompatActivity {
 
         if (name != null) textTitle.setText(name);
 
-        Glide.with(this)
-                .load(imageUrl)
-                .centerCrop()
-                .placeholder(R.drawable.placeholder_image)
-                .error(R.drawable.error_image)
-                .transition(DrawableTransitionOptions.withCrossFade())
-                .into(detailImage);
-
-        containerIngredients.removeAllViews();
-        if (ingredients != null) {
-            for (String ing : ingredients) {
-                TextView tv = createBulletItem(" " + ing);
-                containerIngredients.addView(tv);
-            }
-        }
-
-        containerInstructions.removeAllViews();
-        if (instructions != null) {
-            int i = 1;
-            for (String step : instructions) {
-                TextView tv = createBulletItem(i + " " + step);
-                containerInstructions.addView(tv);
-                i++;
-            }
+        // Opened from the pantry: check off the ingredients it has, compared in canonical form
+        List<String> pantryItems = getIntent().getStringArrayListExtra("pantryItems");
+        boolean[] inPantry = null;
+        if (pantryItems != null && ingredients != null) {
+            Recipe recipe = new Recipe(name, doc.getString("category"), imageUrl, ingredients);
+            inPantry = RecipeMapper.pantryCoverage(recipe, pantryItems);
         }
-    }
 
-    private TextView createBulletItem(String text) {
-        TextView tv = new TextView(this);
-        tv.setText(text);
-        tv.setTextColor(0xFF000000);
-        tv.setTextSize(14);
-        tv.setPadding(4, 6, 4, 6);
-        return tv;
+        // Lines are recycled rows, so long recipes cost no more to show than short ones
+        adapter.setRecipe(imageUrl, ingredients, inPantry, instructions);
     }
 }
@@ -22,11 +22,15 @@ import bd.edu.seu.cookify.R;
 import bd.edu.seu.cookify.adapters.SubstituteAdapter;
 import bd.edu.seu.cookify.models.SubstituteItem;
 import bd.edu.seu.cookify.navigate.NavigationHelper;
+import bd.edu.seu.cookify.utils.SearchPipeline;
 
 public class SubstituteActivity extends AppCompatActivity {
 
     private SubstituteAdapter adapter;
     private final List<SubstituteItem> items = new ArrayList<>();
+    private EditText search;
+    // Debounced background name search, only the latest query reaches the adapter
+    private SearchPipeline<List<SubstituteItem>> searchPipeline;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -38,12 +42,15 @@ public class SubstituteActivity extends AppCompatActivity {
         adapter = new SubstituteAdapter(this);
         recycler.setAdapter(adapter);
 
-        EditText search = findViewById(R.id.editSearchSubstitute);
+        searchPipeline = new SearchPipeline<>(adapter::searchByName,
+                (query, result) -> adapter.showFiltered(result));
+
+        search = findViewById(R.id.editSearchSubstitute);
         search.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void afterTextChanged(Editable s) {}
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
-                adapter.filterByName(s.toString());
+                searchPipeline.submit(s.toString());
             }
         });
 
@@ -77,16 +84,11 @@ public class SubstituteActivity extends AppCompatActivity {
                 .addOnSuccessListener(snap -> {
                     items.clear();
                     for (QueryDocumentSnapshot d : snap) {
-                        java.util.List<String> subs = (java.util.List<String>) d.get("substitute");
-                        SubstituteItem item = new SubstituteItem(
-                                d.getString("name"),
-                                d.getString("amount"),
-                                d.getString("imageUrl"),
-                                subs
-                        );
-                        items.add(item);
+                        items.add(SubstituteItem.fromDocument(d));
                     }
                     adapter.setItems(items);
+                    // Re-apply a query typed while loading
+                    if (search.length() > 0) searchPipeline.submitNow(search.getText().toString());
 
                     // ✅ Success feedback
                     Log.d("SubstituteActivity", "Fetched " + items.size() + " substitutes");
@@ -102,4 +104,10 @@ public class SubstituteActivity extends AppCompatActivity {
                             Toast.LENGTH_SHORT).show();
                 });
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void onDestroy() {
+        searchPipeline.shutdown(); // Drop pending searches for this screen
+        super.onDestroy();
+    }
+}
@@ -24,6 +24,12 @@ public class Recipe {
         this.imageUrl = imageUrl;
     }
 
+    // Constructor used when the ingredients are known as well
+    public Recipe(String name, String category, String imageUrl, List<String> ingredients) {
+        this(name, category, imageUrl);
+        this.ingredients = ingredients;
+    }
+
     // Getter method → returns recipe name
     public String getName() { return name; }
     // Getter method → returns recipe category
@@ -5,6 +5,7 @@ public class RecipeItem {
     private String name;
     private String imageUrl;
     private String culture;
+    private String category;
 
     public RecipeItem() {}
 
@@ -15,6 +16,11 @@ public class RecipeItem {
         this.culture = culture;
     }
 
+    public RecipeItem(String id, String name, String imageUrl, String culture, String category) {
+        this(id, name, imageUrl, culture);
+        this.category = category;
+    }
+
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     public String getName() { return name; }
@@ -24,6 +30,8 @@ public class RecipeItem {
 
     public String getCulture() { return culture; }
 
+    public String getCategory() { return category; }
+
 }
 
 
@@ -0,0 +1,40 @@
+package bd.edu.seu.cookify.models;
+
+import java.util.List;
+
+/**
+ * A recipe suggested from the pantry together with how well the pantry covers it
+ */
+public class RecipeSuggestion {
+    private final Recipe recipe;
+    private final int matchedCount;
+    private final int requiredCount;
+    private final List<String> missingIngredients;
+
+    public RecipeSuggestion(Recipe recipe, int matchedCount, int requiredCount, List<String> missingIngredients) {
+        this.recipe = recipe;
+        this.matchedCount = matchedCount;
+        this.requiredCount = requiredCount;
+        this.missingIngredients = missingIngredients;
+    }
+
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public int getMatchedCount() {
+        return matchedCount;
+    }
+
+    public int getRequiredCount() {
+        return requiredCount;
+    }
+
+    public List<String> getMissingIngredients() {
+        return missingIngredients;
+    }
+
+    public boolean isComplete() {
+        return missingIngredients.isEmpty();
+    }
+}
@@ -1,5 +1,7 @@
 package bd.edu.seu.cookify.models;
 
+import com.google.firebase.firestore.DocumentSnapshot;
+
 public class SubstituteItem {
 
     private String name;
@@ -18,6 +20,18 @@ public class SubstituteItem {
 
     }
 
+    // Reads a document of the "substitutes" collection; entries of the list that are not strings are skipped
+    public static SubstituteItem fromDocument(DocumentSnapshot d) {
+        java.util.List<String> subs = new java.util.ArrayList<>();
+        Object raw = d.get("substitute");
+        if (raw instanceof java.util.List) {
+            for (Object o : (java.util.List<?>) raw) {
+                if (o instanceof String) subs.add((String) o);
+            }
+        }
+        return new SubstituteItem(d.getString("name"), d.getString("amount"), d.getString("imageUrl"), subs);
+    }
+
     public String getName() { return name; }
     public String getAmount() { return amount; }
     public String getImageUrl() { return imageUrl; }
@@ -0,0 +1,115 @@
+package bd.edu.seu.cookify.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recipe catalog read on demand from the compact binary format generated at
+ * build time from app/src/main/catalog/recipe_mappings.csv. Nothing is decoded
+ * up front: every field is read from the buffer when asked for.
+ *
+ * Layout, big-endian ints unless noted:
+ * - header: magic, version, recipeCount, termCount, stringCount, ingredientTotal
+ * - recipes: recipeCount x (id, name, category, imageUrl) string indexes
+ * - ingredientOffsets: recipeCount + 1 offsets into the ingredient array
+ * - ingredients: ingredientTotal term ids
+ * - terms: termCount string indexes
+ * - stringOffsets: stringCount + 1 byte offsets into the string data
+ * - string data: UTF-8 bytes
+ */
+public class BinaryRecipeCatalog implements RecipeCatalog {
+
+    public static final int MAGIC = 0x434B5243; // "CKRC"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_INTS = 6;
+    private static final int RECIPE_INTS = 4;
+
+    private final ByteBuffer buffer;
+    private final int recipeCount;
+    private final int termCount;
+    private final int recipesStart;
+    private final int ingredientOffsetsStart;
+    private final int ingredientsStart;
+    private final int termsStart;
+    private final int stringOffsetsStart;
+    private final int stringDataStart;
+
+    public BinaryRecipeCatalog(ByteBuffer source) {
+        // Absolute reads only, so the buffer is never shared mutable state
+        buffer = source.duplicate();
+        if (buffer.getInt(0) != MAGIC) throw new IllegalArgumentException("Not a recipe catalog");
+        if (buffer.getInt(4) != VERSION) throw new IllegalArgumentException("Unsupported catalog version " + buffer.getInt(4));
+
+        recipeCount = buffer.getInt(8);
+        termCount = buffer.getInt(12);
+        int stringCount = buffer.getInt(16);
+        int ingredientTotal = buffer.getInt(20);
+
+        recipesStart = HEADER_INTS * 4;
+        ingredientOffsetsStart = recipesStart + recipeCount * RECIPE_INTS * 4;
+        ingredientsStart = ingredientOffsetsStart + (recipeCount + 1) * 4;
+        termsStart = ingredientsStart + ingredientTotal * 4;
+        stringOffsetsStart = termsStart + termCount * 4;
+        stringDataStart = stringOffsetsStart + (stringCount + 1) * 4;
+    }
+
+    @Override
+    public int size() {
+        return recipeCount;
+    }
+
+    @Override
+    public String getId(int position) {
+        return recipeString(position, 0);
+    }
+
+    @Override
+    public String getName(int position) {
+        return recipeString(position, 1);
+    }
+
+    @Override
+    public String getCategory(int position) {
+        return recipeString(position, 2);
+    }
+
+    @Override
+    public String getImageUrl(int position) {
+        return recipeString(position, 3);
+    }
+
+    @Override
+    public int getIngredientCount(int position) {
+        int offset = ingredientOffsetsStart + position * 4;
+        return buffer.getInt(offset + 4) - buffer.getInt(offset);
+    }
+
+    @Override
+    public int getIngredient(int position, int k) {
+        int first = buffer.getInt(ingredientOffsetsStart + position * 4);
+        return buffer.getInt(ingredientsStart + (first + k) * 4);
+    }
+
+    @Override
+    public int getTermCount() {
+        return termCount;
+    }
+
+    @Override
+    public String getTerm(int term) {
+        return string(buffer.getInt(termsStart + term * 4));
+    }
+
+    private String recipeString(int position, int field) {
+        return string(buffer.getInt(recipesStart + (position * RECIPE_INTS + field) * 4));
+    }
+
+    private String string(int index) {
+        int start = buffer.getInt(stringOffsetsStart + index * 4);
+        int end = buffer.getInt(stringOffsetsStart + (index + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(stringDataStart + start + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,187 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix completion over weighted texts such as recipe names or ingredients.
+ * Every trie node caches the ids of its best completions by weight, computed once
+ * from its children, so completing a prefix walks the prefix and copies at most
+ * topK cached entries: O(prefix length + topK) however many texts share the prefix.
+ * Each word of a text is also a starting point, so "chick" completes "Butter Chicken".
+ * Matching ignores case. Create a new instance whenever the texts change.
+ */
+public class CompletionTrie {
+
+    private static final int[] NO_COMPLETIONS = new int[0];
+
+    private final int topK;
+    // Completion id -> text as given, and its weight
+    private final String[] texts;
+    private final long[] weights;
+    private final Node root = new Node();
+
+    /**
+     * @param weightedTexts Text -> weight, e.g. popularity or how many recipes use it.
+     *                      Texts equal apart from case are merged, adding their weights
+     *                      and showing the heaviest spelling
+     * @param topK Completions cached per prefix
+     */
+    public CompletionTrie(Map<String, Integer> weightedTexts, int topK) {
+        this.topK = topK;
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> distinct = new ArrayList<>();
+        List<Long> sums = new ArrayList<>();
+        // Weight of the spelling shown; the heaviest spelling of a text wins
+        List<Integer> shownWeights = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : weightedTexts.entrySet()) {
+            String text = entry.getKey() == null ? "" : entry.getKey().trim();
+            if (text.isEmpty()) continue;
+            String key = NameSearchIndex.fold(text);
+            int weight = entry.getValue();
+            Integer id = ids.get(key);
+            if (id == null) {
+                ids.put(key, distinct.size());
+                distinct.add(text);
+                sums.add((long) weight);
+                shownWeights.add(weight);
+            } else {
+                sums.set(id, sums.get(id) + weight);
+                int shown = shownWeights.get(id);
+                if (weight > shown || (weight == shown && text.compareTo(distinct.get(id)) > 0)) {
+                    distinct.set(id, text);
+                    shownWeights.set(id, weight);
+                }
+            }
+        }
+        texts = distinct.toArray(new String[0]);
+        weights = new long[texts.length];
+        for (int i = 0; i < weights.length; i++) weights[i] = sums.get(i);
+
+        for (int id = 0; id < texts.length; id++) {
+            String key = NameSearchIndex.fold(texts[id]);
+            for (int start = 0; start < key.length(); start++) {
+                boolean wordStart = start == 0 || !Character.isLetterOrDigit(key.charAt(start - 1));
+                if (wordStart && Character.isLetterOrDigit(key.charAt(start))) insert(key, start, id);
+            }
+        }
+        fillCompletions(root);
+    }
+
+    /**
+     * Best completions of a prefix, highest weight first
+     * @param prefix Text typed so far
+     * @return Up to topK texts starting with the prefix, or having a word that does
+     */
+    public List<String> complete(String prefix) {
+        List<String> result = new ArrayList<>();
+        String key = NameSearchIndex.fold(prefix == null ? "" : prefix.trim());
+        if (key.isEmpty()) return result;
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) node = node.child(key.charAt(i));
+        if (node == null) return result;
+        for (int id : node.completions) result.add(texts[id]);
+        return result;
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    private void insert(String key, int start, int id) {
+        Node node = root;
+        for (int i = start; i < key.length(); i++) node = node.childOrAdd(key.charAt(i));
+        if (node.ending == null) node.ending = new int[]{id};
+        else if (node.ending[node.ending.length - 1] != id) node.ending = append(node.ending, id);
+    }
+
+    // Post-order merge: a node's best completions come from its own endings and its children's
+    private void fillCompletions(Node node) {
+        int[] candidates = node.ending == null ? NO_COMPLETIONS : ranked(node.ending);
+        for (int c = 0; c < node.size; c++) {
+            Node child = node.children[c];
+            fillCompletions(child);
+            candidates = merge(candidates, child.completions);
+        }
+        node.completions = candidates;
+        node.ending = null;
+    }
+
+    // Best topK of two ranked lists, each id once. Chains of single children
+    // share one array instead of copying it
+    private int[] merge(int[] a, int[] b) {
+        if (b.length == 0) return a;
+        if (a.length == 0) return b;
+        int[] best = new int[Math.min(topK, a.length + b.length)];
+        int count = 0, i = 0, j = 0;
+        while (count < best.length && (i < a.length || j < b.length)) {
+            int next = j == b.length || (i < a.length && rank(a[i], b[j]) <= 0) ? a[i++] : b[j++];
+            // The same text can arrive through several of its words
+            boolean seen = false;
+            for (int k = 0; k < count && !seen; k++) seen = best[k] == next;
+            if (!seen) best[count++] = next;
+        }
+        return count == best.length ? best : Arrays.copyOf(best, count);
+    }
+
+    // Ids in rank order, at most topK
+    private int[] ranked(int[] ids) {
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) boxed[i] = ids[i];
+        Arrays.sort(boxed, this::rank);
+        int[] best = new int[Math.min(topK, ids.length)];
+        for (int i = 0; i < best.length; i++) best[i] = boxed[i];
+        return best;
+    }
+
+    // Heavier first, then shorter, then alphabetical
+    private int rank(int x, int y) {
+        int byWeight = Long.compare(weights[y], weights[x]);
+        if (byWeight != 0) return byWeight;
+        int byLength = Integer.compare(texts[x].length(), texts[y].length());
+        if (byLength != 0) return byLength;
+        int byText = texts[x].compareToIgnoreCase(texts[y]);
+        return byText != 0 ? byText : Integer.compare(x, y);
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] grown = Arrays.copyOf(array, array.length + 1);
+        grown[array.length] = value;
+        return grown;
+    }
+
+    private static class Node {
+        // Children sorted by label for binary search
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        int size;
+        // Texts ending here while building, null afterwards
+        int[] ending;
+        int[] completions = NO_COMPLETIONS;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, 0, size, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrAdd(char c) {
+            int i = Arrays.binarySearch(labels, 0, size, c);
+            if (i >= 0) return children[i];
+            i = -i - 1;
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, labels.length);
+            }
+            System.arraycopy(labels, i, labels, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            Node child = new Node();
+            labels[i] = c;
+            children[i] = child;
+            size++;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package bd.edu.seu.cookify.utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.File;
+
+/**
+ * App-wide Glide configuration: one sized LRU memory cache and one disk cache shared
+ * by every screen, both counting their lookups into {@link ImageLoader#cacheStats()}
+ */
+@GlideModule
+public final class CookifyGlideModule extends AppGlideModule {
+
+    private static final String DISK_CACHE_DIR = "image_cache";
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    // Decoded images kept in memory, measured in screenfuls of ARGB_8888 pixels
+    private static final float MEMORY_CACHE_SCREENS = 2;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator sizes = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .build();
+        builder.setMemoryCache(new CountingMemoryCache(sizes.getMemoryCacheSize()));
+
+        DiskCache.Factory disk = new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES);
+        builder.setDiskCache(() -> {
+            DiskCache cache = disk.build();
+            return cache == null ? null : new CountingDiskCache(cache);
+        });
+    }
+
+    // Every decoder and model loader is registered by Glide itself, skip the manifest scan
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    // Glide takes a resource out of the memory cache when a request finds it there
+    private static final class CountingMemoryCache extends LruResourceCache {
+
+        CountingMemoryCache(long size) {
+            super(size);
+        }
+
+        @Nullable @Override
+        public synchronized Resource<?> remove(@NonNull Key key) {
+            Resource<?> resource = super.remove(key);
+            ImageLoader.recordMemoryLookup(resource != null);
+            return resource;
+        }
+    }
+
+    private static final class CountingDiskCache implements DiskCache {
+        private final DiskCache cache;
+
+        CountingDiskCache(DiskCache cache) {
+            this.cache = cache;
+        }
+
+        @Nullable @Override
+        public File get(Key key) {
+            File file = cache.get(key);
+            ImageLoader.recordDiskLookup(file != null);
+            return file;
+        }
+
+        @Override
+        public void put(Key key, Writer writer) {
+            cache.put(key, writer);
+        }
+
+        @Override
+        public void delete(Key key) {
+            cache.delete(key);
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Bitmap index over facet values such as culture and category.
+ * Every value of every facet gets a bitmap of the item positions carrying it, built
+ * once. Selecting a value only recomputes the AND of the selected bitmaps, and
+ * filtering a search result tests one bit per item, so changing one facet keeps
+ * the others and the name query without rescanning every item.
+ * Values are compared case-insensitively. Create a new instance whenever the items change.
+ * @param <T> Item type
+ */
+public class FacetIndex<T> {
+
+    private final List<T> items;
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private final Map<String, Facet<T>> facets = new LinkedHashMap<>();
+    // AND of the selected values' bitmaps, null while no facet is selected
+    private BitSet selection;
+
+    public FacetIndex(List<T> items) {
+        this.items = new ArrayList<>(items);
+        for (int p = 0; p < this.items.size(); p++) positions.put(this.items.get(p), p);
+    }
+
+    /**
+     * Index one facet of the items
+     * @param name Facet name used by {@link #select}
+     * @param valueOf Facet value of an item, may be null
+     */
+    public synchronized void addFacet(String name, Function<T, String> valueOf) {
+        Facet<T> facet = new Facet<>(valueOf);
+        for (int p = 0; p < items.size(); p++) {
+            String value = fold(valueOf.apply(items.get(p)));
+            if (value.isEmpty()) continue;
+            BitSet bits = facet.bitmaps.get(value);
+            if (bits == null) facet.bitmaps.put(value, bits = new BitSet(items.size()));
+            bits.set(p);
+        }
+        facets.put(name, facet);
+    }
+
+    /**
+     * Restrict a facet to one value, keeping the other facets' selections
+     * @param name Facet name
+     * @param value Value to keep, null or "All" to stop filtering on this facet
+     */
+    public synchronized void select(String name, String value) {
+        Facet<T> facet = facets.get(name);
+        if (facet == null) throw new IllegalArgumentException("Unknown facet: " + name);
+        String folded = fold(value);
+        facet.selected = folded.isEmpty() || folded.equals("all") ? null : folded;
+
+        selection = null;
+        for (Facet<T> f : facets.values()) {
+            if (f.selected == null) continue;
+            BitSet bits = f.bitmaps.get(f.selected);
+            if (bits == null) {
+                selection = new BitSet(); // Value nobody has
+                return;
+            }
+            if (selection == null) selection = (BitSet) bits.clone();
+            else selection.and(bits);
+        }
+    }
+
+    /**
+     * Items of the index passing every selected facet, in index order
+     */
+    public synchronized List<T> filtered() {
+        if (selection == null) return new ArrayList<>(items);
+        List<T> result = new ArrayList<>(selection.cardinality());
+        for (int p = selection.nextSetBit(0); p >= 0; p = selection.nextSetBit(p + 1)) result.add(items.get(p));
+        return result;
+    }
+
+    /**
+     * Keep the items of a search result passing every selected facet, in result order.
+     * Items that are not in the index are checked against their own values
+     * @param ranked Search result
+     * @return Filtered result
+     */
+    public synchronized List<T> filter(List<T> ranked) {
+        if (selection == null) return new ArrayList<>(ranked);
+        List<T> result = new ArrayList<>();
+        for (T item : ranked) {
+            Integer p = positions.get(item);
+            if (p != null ? selection.get(p) : accepts(item)) result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Distinct values of a facet, sorted
+     */
+    public synchronized List<String> values(String name) {
+        Facet<T> facet = facets.get(name);
+        if (facet == null) return new ArrayList<>();
+        TreeSet<String> sorted = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (T item : items) {
+            String value = facet.valueOf.apply(item);
+            if (value != null && !value.trim().isEmpty()) sorted.add(value.trim());
+        }
+        return new ArrayList<>(sorted);
+    }
+
+    private boolean accepts(T item) {
+        for (Facet<T> facet : facets.values()) {
+            if (facet.selected != null && !facet.selected.equals(fold(facet.valueOf.apply(item)))) return false;
+        }
+        return true;
+    }
+
+    private static String fold(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Facet<T> {
+        final Function<T, String> valueOf;
+        final Map<String, BitSet> bitmaps = new HashMap<>();
+        String selected;
+
+        Facet(Function<T, String> valueOf) {
+            this.valueOf = valueOf;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.Locale;
+
+/**
+ * Query building and BM25 scoring for the SQLite FTS4 recipe table.
+ * FTS4 has no built-in ranking function, so rows are scored from
+ * matchinfo(table, 'pcnalx'), which carries everything BM25 needs: row count,
+ * average and current column lengths, and per-phrase hit and document counts.
+ */
+public class FullTextRanker {
+
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Turn free text into an FTS MATCH expression: every word must match, and the
+     * last one may be a prefix so results show up while the user is still typing
+     * @param text Search text as typed
+     * @return MATCH expression, empty if the text has no words
+     */
+    public static String toMatchQuery(String text) {
+        if (text == null) return "";
+        String folded = text.toLowerCase(Locale.ROOT);
+        StringBuilder query = new StringBuilder();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) start = i;
+            if (!wordChar && start >= 0) {
+                if (query.length() > 0) query.append(' ');
+                // Quoted so words like "and" or "near" are not read as operators
+                query.append('"').append(folded, start, i).append('"');
+                start = -1;
+            }
+        }
+        if (query.length() > 0) query.insert(query.length() - 1, '*');
+        return query.toString();
+    }
+
+    /**
+     * BM25 score of one row, higher is better
+     * @param matchinfo Values of matchinfo(table, 'pcnalx') for the row
+     * @param weights Weight per column, in table column order
+     * @return Score summed over all phrases and weighted columns
+     */
+    public static double bm25(int[] matchinfo, double[] weights) {
+        int phrases = matchinfo[0];
+        int columns = matchinfo[1];
+        long rows = matchinfo[2] & 0xFFFFFFFFL;
+        int averages = 3;
+        int lengths = averages + columns;
+        int hits = lengths + columns;
+
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int base = hits + 3 * (p * columns + c);
+                int frequency = matchinfo[base];
+                if (frequency == 0) continue;
+                int documents = matchinfo[base + 2];
+                // Smoothed IDF that stays positive for very common words
+                double idf = Math.log(1 + (rows - documents + 0.5) / (documents + 0.5));
+                double average = Math.max(1, matchinfo[averages + c]);
+                double length = matchinfo[lengths + c];
+                double saturation = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / average));
+                score += (c < weights.length ? weights[c] : 1) * idf * saturation;
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,184 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typo-tolerant name search ranked exact, then prefix, then substring, then fuzzy.
+ * Substring matches come from an {@link IncrementalNameSearch}. For the fuzzy tier
+ * every name is split into word tokens, each distinct token gets a posting list of
+ * the names using it, and a {@link TokenTrie} walked as a Levenshtein automaton
+ * finds the tokens within a small edit distance of each query word, so "biriyani" or "haleam" still find their
+ * recipes without comparing the query against every name.
+ * Create a new instance whenever the items change.
+ * @param <T> Item type
+ */
+public class FuzzyNameSearch<T> {
+
+    // Query words shorter than this must appear as typed; typos are too ambiguous
+    private static final int MIN_FUZZY_LENGTH = 4;
+    // Query words at least this long may have two typos when none has one
+    private static final int TWO_TYPO_LENGTH = 8;
+
+    private final NameSearchIndex<T> index;
+    private final IncrementalNameSearch<T> substringSearch;
+    private final TokenTrie dictionary;
+    // Token id -> positions of the names containing that word, ascending
+    private final int[][] tokenPostings;
+
+    // Stamps marking the positions already ranked in a better tier
+    private final int[] stamps;
+    private int stamp;
+
+    public FuzzyNameSearch(NameSearchIndex<T> index) {
+        this.index = index;
+        substringSearch = new IncrementalNameSearch<>(index);
+        stamps = new int[index.size()];
+
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<String> tokens = new ArrayList<>();
+        List<int[]> postings = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (int p = 0; p < index.size(); p++) {
+            for (String token : tokenize(index.keyOf(p))) {
+                Integer id = tokenIds.get(token);
+                if (id == null) {
+                    id = tokens.size();
+                    tokenIds.put(token, id);
+                    tokens.add(token);
+                    postings.add(new int[2]);
+                    sizes.add(0);
+                }
+                int size = sizes.get(id);
+                int[] list = postings.get(id);
+                if (size > 0 && list[size - 1] == p) continue; // Word repeated in one name
+                if (size == list.length) postings.set(id, list = Arrays.copyOf(list, size * 2));
+                list[size] = p;
+                sizes.set(id, size + 1);
+            }
+        }
+        dictionary = new TokenTrie(tokens.toArray(new String[0]));
+        tokenPostings = new int[tokens.size()][];
+        for (int t = 0; t < tokenPostings.length; t++) tokenPostings[t] = Arrays.copyOf(postings.get(t), sizes.get(t));
+    }
+
+    /**
+     * Items matching the query, best first: name equal to the query, name starting
+     * with it, name containing it, then names whose words are within a few typos of
+     * every query word, closest first
+     * @param query Search text, an empty query matches everything in order
+     * @return Ranked matching items
+     */
+    public synchronized List<T> search(String query) {
+        String q = NameSearchIndex.fold(query);
+        int[] contained = substringSearch.searchPositions(q);
+        List<T> ranked = new ArrayList<>();
+        if (q.isEmpty()) {
+            for (int p : contained) ranked.add(index.get(p));
+            return ranked;
+        }
+
+        nextStamp();
+        List<T> prefixed = new ArrayList<>();
+        List<T> inside = new ArrayList<>();
+        for (int p : contained) {
+            stamps[p] = stamp;
+            String key = index.keyOf(p);
+            if (key.equals(q)) ranked.add(index.get(p));
+            else if (key.startsWith(q)) prefixed.add(index.get(p));
+            else inside.add(index.get(p));
+        }
+        ranked.addAll(prefixed);
+        ranked.addAll(inside);
+
+        Map<Integer, Integer> fuzzy = fuzzyMatches(q);
+        if (fuzzy == null) return ranked;
+        List<Integer> extra = new ArrayList<>();
+        for (int p : fuzzy.keySet()) {
+            if (stamps[p] != stamp) extra.add(p);
+        }
+        extra.sort((a, b) -> {
+            int byDistance = Integer.compare(fuzzy.get(a), fuzzy.get(b));
+            return byDistance != 0 ? byDistance : Integer.compare(a, b);
+        });
+        for (int p : extra) ranked.add(index.get(p));
+        return ranked;
+    }
+
+    /**
+     * Names where every query word is contained or within its typo budget of a word
+     * @return Position -> summed edit distance, or null if no word allows typos
+     */
+    private Map<Integer, Integer> fuzzyMatches(String q) {
+        List<String> words = tokenize(q);
+        boolean anyFuzzy = false;
+        for (String word : words) anyFuzzy |= word.length() >= MIN_FUZZY_LENGTH;
+        if (!anyFuzzy) return null;
+
+        Map<Integer, Integer> matches = null;
+        for (String word : words) {
+            Map<Integer, Integer> distances = new HashMap<>();
+            for (int p : index.searchPositions(word)) distances.put(p, 0);
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                // One typo first; long words widen to two only if nothing is that close,
+                // since the two-typo walk visits far more of the dictionary
+                boolean found = collectTokens(word, 1, distances);
+                if (!found && word.length() >= TWO_TYPO_LENGTH) collectTokens(word, 2, distances);
+            }
+
+            if (matches == null) {
+                matches = distances;
+            } else {
+                // Keep names matching every word so far, adding up the distances
+                Map<Integer, Integer> both = new HashMap<>();
+                Map<Integer, Integer> smaller = matches.size() <= distances.size() ? matches : distances;
+                Map<Integer, Integer> larger = smaller == matches ? distances : matches;
+                for (Map.Entry<Integer, Integer> entry : smaller.entrySet()) {
+                    Integer other = larger.get(entry.getKey());
+                    if (other != null) both.put(entry.getKey(), entry.getValue() + other);
+                }
+                matches = both;
+            }
+            if (matches.isEmpty()) break;
+        }
+        return matches;
+    }
+
+    /**
+     * Add the names using a dictionary word within maxDistance of the query word
+     * @return true if any dictionary word was that close
+     */
+    private boolean collectTokens(String word, int maxDistance, Map<Integer, Integer> distances) {
+        boolean[] found = {false};
+        dictionary.search(word, maxDistance, (token, distance) -> {
+            found[0] = true;
+            for (int p : tokenPostings[token]) distances.merge(p, distance, Math::min);
+        });
+        return found[0];
+    }
+
+    private void nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    // Words of a folded name: runs of letters and digits
+    static List<String> tokenize(String key) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= key.length(); i++) {
+            boolean wordChar = i < key.length() && Character.isLetterOrDigit(key.charAt(i));
+            if (wordChar && start < 0) start = i;
+            if (!wordChar && start >= 0) {
+                tokens.add(key.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
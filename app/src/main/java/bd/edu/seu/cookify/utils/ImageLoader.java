@@ -0,0 +1,87 @@
+package bd.edu.seu.cookify.utils;
+
+import android.widget.ImageView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bd.edu.seu.cookify.R;
+
+/**
+ * The one way the app loads recipe and ingredient images. Every screen goes through
+ * the same Glide instance and request options, so an image decoded for Home is a
+ * memory cache hit in Browse. Cache sizes are set in {@link CookifyGlideModule}
+ */
+public final class ImageLoader {
+
+    /**
+     * Options shared by every image request; requests with equal options and size share cache entries
+     */
+    public static final RequestOptions OPTIONS = new RequestOptions()
+            .centerCrop()
+            .placeholder(R.drawable.placeholder_image)
+            .error(R.drawable.error_image);
+
+    private static final AtomicLong memoryHits = new AtomicLong();
+    private static final AtomicLong memoryMisses = new AtomicLong();
+    private static final AtomicLong diskHits = new AtomicLong();
+    private static final AtomicLong diskMisses = new AtomicLong();
+
+    private ImageLoader() {
+    }
+
+    /**
+     * Load an image into a view, sized to the view and cropped to fill it
+     * @param url Image url, null shows the error image
+     * @param target View to show it in; the request follows the view's lifecycle
+     */
+    public static void load(String url, ImageView target) {
+        Glide.with(target)
+                .load(url)
+                .apply(OPTIONS)
+                .transition(DrawableTransitionOptions.withCrossFade())
+                .into(target);
+    }
+
+    static void recordMemoryLookup(boolean hit) {
+        (hit ? memoryHits : memoryMisses).incrementAndGet();
+    }
+
+    static void recordDiskLookup(boolean hit) {
+        (hit ? diskHits : diskMisses).incrementAndGet();
+    }
+
+    /**
+     * Share of memory cache lookups that found a decoded image, 0 before any lookup.
+     * Images still shown on screen are reused before the cache is asked and are not counted
+     */
+    public static double memoryHitRate() {
+        return rate(memoryHits.get(), memoryMisses.get());
+    }
+
+    /**
+     * Share of disk cache lookups that found a file, 0 before any lookup
+     */
+    public static double diskHitRate() {
+        return rate(diskHits.get(), diskMisses.get());
+    }
+
+    /**
+     * Hit and miss counts of both caches, for logs
+     */
+    public static String cacheStats() {
+        return String.format(Locale.US,
+                "ImageCache{memory=%d/%d (%.0f%%), disk=%d/%d (%.0f%%)}",
+                memoryHits.get(), memoryHits.get() + memoryMisses.get(), memoryHitRate() * 100,
+                diskHits.get(), diskHits.get() + diskMisses.get(), diskHitRate() * 100);
+    }
+
+    private static double rate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,266 @@
+package bd.edu.seu.cookify.utils;
+
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Loads the images of the rows about to scroll into view into the memory cache, so
+ * rows show their image on the first bind instead of a placeholder. It looks ahead in
+ * the scroll direction, further the faster the list moves, and decodes at the size of
+ * the bound image views with {@link ImageLoader#OPTIONS}, so binds hit the same cache
+ * entries. At most {@link #BUDGET} preloads run at once and any that the list has
+ * scrolled past are cancelled, so a fling does not queue a download per row it skips.
+ * Only lists with a {@link LinearLayoutManager} are preloaded. Call {@link #detach}
+ * when the list goes away, so the adapter no longer holds on to the preloader.
+ */
+public final class ImagePreloader extends RecyclerView.OnScrollListener {
+
+    /**
+     * Adapter side of the preloader: the image shown by each row
+     */
+    public interface Source {
+        /**
+         * @return Image url of the row, or null when it shows none
+         */
+        @Nullable String imageUrlAt(int position);
+    }
+
+    // Rows always preloaded ahead of the visible ones, and the most for fast scrolling
+    private static final int MIN_AHEAD = 2;
+    private static final int MAX_AHEAD = 12;
+    // How far ahead in time to look when the list is moving, in milliseconds
+    private static final int LOOKAHEAD_MS = 600;
+    // Preloads allowed in flight at once
+    private static final int BUDGET = 4;
+    // Weight of the newest scroll step in the smoothed speed
+    private static final float SPEED_SMOOTHING = 0.3f;
+
+    private final RecyclerView recyclerView;
+    private final Source source;
+    private final int imageViewId;
+    private final RequestManager requests;
+    // Adapter watched for changes, null when it was not set at attach time
+    private final RecyclerView.Adapter<?> adapter;
+    private boolean detached;
+    // Positions mean other rows after a change, start over from what is visible
+    private final RecyclerView.AdapterDataObserver observer = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            reset();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            reset();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            reset();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            reset();
+        }
+    };
+    // Preloads in flight, by adapter position
+    private final Map<Integer, PreloadTarget> inFlight = new HashMap<>();
+
+    // Down until the user scrolls, so the rows below the first screen load first
+    private int direction = 1;
+    // Farthest position already requested in the current direction
+    private int issuedEdge = RecyclerView.NO_POSITION;
+    private float speed; // pixels per millisecond, smoothed
+    private long lastScrollTime;
+    private int width;
+    private int height;
+    private int rowHeight;
+
+    private ImagePreloader(RecyclerView recyclerView, Source source, @IdRes int imageViewId) {
+        this.recyclerView = recyclerView;
+        this.source = source;
+        this.imageViewId = imageViewId;
+        this.requests = Glide.with(recyclerView);
+        this.adapter = recyclerView.getAdapter();
+    }
+
+    /**
+     * Preload images for a list while it scrolls
+     * @param recyclerView List to watch, with its adapter already set
+     * @param source Image urls by row, usually the adapter
+     * @param imageViewId Id of the image view in each row, whose size is preloaded
+     * @return The preloader, to {@link #detach} when the list goes away
+     */
+    public static ImagePreloader attach(RecyclerView recyclerView, Source source, @IdRes int imageViewId) {
+        ImagePreloader preloader = new ImagePreloader(recyclerView, source, imageViewId);
+        recyclerView.addOnScrollListener(preloader);
+        if (preloader.adapter != null) preloader.adapter.registerAdapterDataObserver(preloader.observer);
+        return preloader;
+    }
+
+    /**
+     * Stop preloading: remove the listeners added by {@link #attach} and cancel preloads in flight
+     */
+    public void detach() {
+        if (detached) return;
+        detached = true;
+        recyclerView.removeOnScrollListener(this);
+        if (adapter != null) adapter.unregisterAdapterDataObserver(observer);
+        cancelAll();
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+        if (dy == 0) return;
+        long now = SystemClock.uptimeMillis();
+        long elapsed = Math.max(1, now - lastScrollTime);
+        float step = Math.abs(dy) / (float) elapsed;
+        // A pause between scrolls starts a new gesture rather than averaging with the last one
+        speed = elapsed > LOOKAHEAD_MS ? step : speed + SPEED_SMOOTHING * (step - speed);
+        lastScrollTime = now;
+
+        int newDirection = dy > 0 ? 1 : -1;
+        if (newDirection != direction) {
+            direction = newDirection;
+            issuedEdge = RecyclerView.NO_POSITION;
+        }
+        fill();
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+        // Settled: keep a short lookahead in the last direction
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            speed = 0;
+            fill();
+        }
+    }
+
+    private void reset() {
+        cancelAll();
+        recyclerView.post(() -> {
+            if (!detached) fill();
+        });
+    }
+
+    // Cancel what fell out of the lookahead window, then start preloads up to the budget
+    private void fill() {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+        LinearLayoutManager layout = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int edge = direction > 0 ? layout.findLastVisibleItemPosition() : layout.findFirstVisibleItemPosition();
+        if (edge == RecyclerView.NO_POSITION || !measure(layout)) return;
+
+        int ahead = rowsAhead();
+        int near = edge + direction;
+        int far = edge + direction * ahead;
+        cancel(Math.min(near, far), Math.max(near, far));
+        // Rows past a shrunken window were cancelled, request them again once it grows
+        if (issuedEdge != RecyclerView.NO_POSITION && (issuedEdge - far) * direction > 0) issuedEdge = far;
+
+        int count = layout.getItemCount();
+        int from = issuedEdge == RecyclerView.NO_POSITION || (issuedEdge - edge) * direction <= 0
+                ? near
+                : issuedEdge + direction;
+        for (int pos = from; (far - pos) * direction >= 0 && inFlight.size() < BUDGET; pos += direction) {
+            if (pos < 0 || pos >= count) break;
+            issuedEdge = pos;
+            String url = source.imageUrlAt(pos);
+            if (url == null || url.isEmpty()) continue;
+            PreloadTarget target = new PreloadTarget(pos);
+            inFlight.put(pos, target);
+            requests.load(url).apply(ImageLoader.OPTIONS).into(target);
+        }
+    }
+
+    // Rows covered by the lookahead time at the current speed, within the bounds
+    private int rowsAhead() {
+        int rows = Math.round(speed * LOOKAHEAD_MS / rowHeight);
+        return Math.max(MIN_AHEAD, Math.min(MAX_AHEAD, MIN_AHEAD + rows));
+    }
+
+    // Size of the image view and of a visible row, which every row shares
+    private boolean measure(LinearLayoutManager layout) {
+        for (int i = 0; i < layout.getChildCount(); i++) {
+            View row = layout.getChildAt(i);
+            View image = row == null ? null : row.findViewById(imageViewId);
+            if (image == null) continue;
+            int w = image.getWidth() - image.getPaddingLeft() - image.getPaddingRight();
+            int h = image.getHeight() - image.getPaddingTop() - image.getPaddingBottom();
+            if (w > 0 && h > 0) {
+                // Preloads at another size would never be hit
+                if (w != width || h != height) cancelAll();
+                width = w;
+                height = h;
+                rowHeight = Math.max(1, row.getHeight());
+                return true;
+            }
+        }
+        return width > 0 && height > 0;
+    }
+
+    private void cancelAll() {
+        for (PreloadTarget target : inFlight.values()) requests.clear(target);
+        inFlight.clear();
+        issuedEdge = RecyclerView.NO_POSITION;
+    }
+
+    // Cancel the preloads outside [from, to]
+    private void cancel(int from, int to) {
+        for (Iterator<Map.Entry<Integer, PreloadTarget>> it = inFlight.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, PreloadTarget> entry = it.next();
+            if (entry.getKey() >= from && entry.getKey() <= to) continue;
+            it.remove();
+            requests.clear(entry.getValue());
+        }
+    }
+
+    // Release a finished preload, which leaves its image in the memory cache, and use the freed budget
+    private void finished(PreloadTarget target) {
+        if (inFlight.get(target.position) == target) inFlight.remove(target.position);
+        // Glide does not allow clearing a request from its own callback
+        recyclerView.post(() -> {
+            requests.clear(target);
+            if (!detached) fill();
+        });
+    }
+
+    private final class PreloadTarget extends CustomTarget<Drawable> {
+        final int position;
+
+        PreloadTarget(int position) {
+            super(width, height);
+            this.position = position;
+        }
+
+        @Override
+        public void onResourceReady(@NonNull Drawable resource, @Nullable Transition<? super Drawable> transition) {
+            finished(this);
+        }
+
+        @Override
+        public void onLoadFailed(@Nullable Drawable errorDrawable) {
+            finished(this);
+        }
+
+        @Override
+        public void onLoadCleared(@Nullable Drawable placeholder) {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Search-as-you-type on top of a {@link NameSearchIndex}.
+ * Keeps a short stack of previous (query, result) pairs: a query that extends the
+ * last one only re-checks the last result, since every name containing it also
+ * contains the shorter query, and going back to an earlier query (backspace) pops
+ * to its cached result without searching at all.
+ * Create a new instance whenever the items change.
+ * @param <T> Item type
+ */
+public class IncrementalNameSearch<T> {
+
+    // Previous queries kept for backspacing
+    private static final int MAX_DEPTH = 32;
+
+    private static class Step {
+        final String query;
+        final int[] positions;
+
+        Step(String query, int[] positions) {
+            this.query = query;
+            this.positions = positions;
+        }
+    }
+
+    private final NameSearchIndex<T> index;
+    // Most recent query on top; each query contains the one below it
+    private final Deque<Step> steps = new ArrayDeque<>();
+
+    public IncrementalNameSearch(NameSearchIndex<T> index) {
+        this.index = index;
+    }
+
+    /**
+     * Items whose name contains the query, ignoring case
+     * @param query Search text, an empty query matches everything
+     * @return Matching items in their original order
+     */
+    public synchronized List<T> search(String query) {
+        int[] positions = searchPositions(query);
+        List<T> matches = new ArrayList<>(positions.length);
+        for (int p : positions) matches.add(index.get(p));
+        return matches;
+    }
+
+    /**
+     * Positions of the items whose name contains the query, ignoring case
+     * @param query Search text, an empty query matches everything
+     * @return Ascending item positions, not to be modified
+     */
+    synchronized int[] searchPositions(String query) {
+        String q = NameSearchIndex.fold(query);
+        // Drop cached queries this one does not extend
+        while (!steps.isEmpty() && !q.contains(steps.peek().query)) steps.pop();
+        if (q.isEmpty()) return index.searchPositions(q);
+
+        Step last = steps.peek();
+        if (last != null && last.query.equals(q)) return last.positions;
+
+        int[] positions;
+        if (last == null) {
+            positions = index.searchPositions(q);
+        } else {
+            // Narrow the previous result instead of searching the whole index
+            positions = new int[last.positions.length];
+            int count = 0;
+            for (int p : last.positions) {
+                if (index.keyOf(p).contains(q)) positions[count++] = p;
+            }
+            positions = Arrays.copyOf(positions, count);
+        }
+
+        steps.push(new Step(q, positions));
+        if (steps.size() > MAX_DEPTH) steps.removeLast();
+        return positions;
+    }
+}
@@ -0,0 +1,182 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bd.edu.seu.cookify.models.Recipe;
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+
+/**
+ * Keeps per-recipe match counters for a pantry that changes one item at a time.
+ * Adding or removing an item only updates the recipes listed under the terms
+ * that item covers, instead of re-matching the whole catalog.
+ * Not thread-safe: use it from a single thread.
+ */
+public class IncrementalRecipeMatcher {
+
+    private final RecipeIndex index;
+
+    // Normalized pantry item -> how many times it is in the pantry
+    private final Map<String, Integer> pantryCounts = new HashMap<>();
+    // Term id -> number of pantry items covering it
+    private final int[] termSupport;
+    // Terms with a support above zero
+    private final long[] satisfiedBits;
+    // Recipe position -> number of its required terms currently covered
+    private final int[] matchedCounts;
+
+    // Recipes with at least one covered term, with O(1) insert and removal
+    private final int[] candidates;
+    private final int[] candidateSlots;
+    private int candidateCount;
+
+    // Index substitutes the counters were computed with
+    private int substituteVersion;
+
+    public IncrementalRecipeMatcher(RecipeIndex index) {
+        this.index = index;
+        int termCount = index.termCount();
+        termSupport = new int[termCount];
+        satisfiedBits = new long[(termCount + 63) >>> 6];
+        matchedCounts = new int[index.size()];
+        candidates = new int[index.size()];
+        candidateSlots = new int[index.size()];
+        Arrays.fill(candidateSlots, -1);
+        substituteVersion = index.substituteVersion();
+    }
+
+    /**
+     * Replace the whole pantry
+     * @param pantryItems New pantry items
+     */
+    public void reset(Collection<String> pantryItems) {
+        ensureCurrent();
+        for (String item : new ArrayList<>(pantryCounts.keySet())) {
+            int count = pantryCounts.get(item);
+            for (int i = 0; i < count; i++) removeNormalized(item);
+        }
+        for (String item : pantryItems) add(item);
+    }
+
+    /**
+     * Add one pantry item and update the recipes it affects
+     * @param pantryItem Pantry item as typed by the user
+     */
+    public void add(String pantryItem) {
+        ensureCurrent();
+        String item = RecipeMapper.normalizeString(pantryItem);
+        Integer count = pantryCounts.get(item);
+        pantryCounts.put(item, count == null ? 1 : count + 1);
+        if (count != null) return; // Same terms are already covered
+        cover(item);
+    }
+
+    private void cover(String item) {
+        for (int term : index.termsCoveredBy(item)) {
+            if (termSupport[term]++ > 0) continue;
+            satisfiedBits[term >>> 6] |= 1L << term;
+            for (int r : index.postingsOf(term)) {
+                if (matchedCounts[r]++ == 0) addCandidate(r);
+            }
+        }
+    }
+
+    /**
+     * Remove one pantry item and update the recipes it affects
+     * @param pantryItem Pantry item as typed by the user
+     */
+    public void remove(String pantryItem) {
+        ensureCurrent();
+        removeNormalized(RecipeMapper.normalizeString(pantryItem));
+    }
+
+    private void removeNormalized(String item) {
+        Integer count = pantryCounts.get(item);
+        if (count == null) return;
+        if (count > 1) {
+            pantryCounts.put(item, count - 1);
+            return;
+        }
+        pantryCounts.remove(item);
+        uncover(item);
+    }
+
+    private void uncover(String item) {
+        for (int term : index.termsCoveredBy(item)) {
+            if (--termSupport[term] > 0) continue;
+            satisfiedBits[term >>> 6] &= ~(1L << term);
+            for (int r : index.postingsOf(term)) {
+                if (--matchedCounts[r] == 0) removeCandidate(r);
+            }
+        }
+    }
+
+    /**
+     * Recipes whose required ingredients are all in the pantry
+     * @return Matching recipes in catalog order
+     */
+    public List<Recipe> getMatches() {
+        ensureCurrent();
+        List<Recipe> matches = new ArrayList<>();
+        if (pantryCounts.isEmpty()) return matches;
+
+        int[] complete = new int[candidateCount + index.unconditionalRecipes().length];
+        int completeCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int r = candidates[i];
+            if (matchedCounts[r] == index.requiredCountOf(r)) complete[completeCount++] = r;
+        }
+        for (int r : index.unconditionalRecipes()) complete[completeCount++] = r;
+        Arrays.sort(complete, 0, completeCount);
+
+        for (int i = 0; i < completeCount; i++) matches.add(index.recipeAt(complete[i]));
+        return matches;
+    }
+
+    /**
+     * Recipes ranked by pantry coverage, partial matches included
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, complete matches first
+     */
+    public List<RecipeSuggestion> getTopSuggestions(int limit) {
+        ensureCurrent();
+        if (pantryCounts.isEmpty()) return new ArrayList<>();
+        return index.rankCandidates(candidates, candidateCount, matchedCounts, satisfiedBits, limit);
+    }
+
+    /**
+     * Recount from the held pantry items if the index substitutes changed,
+     * since the same item may now cover different terms
+     */
+    private void ensureCurrent() {
+        int current = index.substituteVersion();
+        if (current == substituteVersion) return;
+        substituteVersion = current;
+
+        for (int i = 0; i < candidateCount; i++) {
+            matchedCounts[candidates[i]] = 0;
+            candidateSlots[candidates[i]] = -1;
+        }
+        candidateCount = 0;
+        Arrays.fill(termSupport, 0);
+        Arrays.fill(satisfiedBits, 0L);
+        for (String item : pantryCounts.keySet()) cover(item);
+    }
+
+    private void addCandidate(int r) {
+        candidateSlots[r] = candidateCount;
+        candidates[candidateCount++] = r;
+    }
+
+    private void removeCandidate(int r) {
+        int slot = candidateSlots[r];
+        int last = candidates[--candidateCount];
+        candidates[slot] = last;
+        candidateSlots[last] = slot;
+        candidateSlots[r] = -1;
+    }
+}
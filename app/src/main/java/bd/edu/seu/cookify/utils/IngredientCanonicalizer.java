@@ -0,0 +1,281 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns ingredient text into one canonical form and interns it into an integer id.
+ * Canonical text is case folded without the device locale, has its whitespace
+ * trimmed and collapsed, its last word singularized and known synonyms replaced,
+ * so "Cherry  Tomatoes" and "cherry tomato" or "Cilantro" and "coriander" share an id.
+ * Looking up text that was seen before allocates nothing. Only {@link #intern} adds to
+ * the table, so {@link #find} and {@link #canonical} are safe on arbitrary user text.
+ */
+public class IngredientCanonicalizer {
+
+    // Synonyms mapped to the canonical spelling, written in canonical (singular) form
+    private static final String[][] SYNONYMS = {
+            {"cilantro", "coriander"},
+            {"scallion", "green onion"},
+            {"spring onion", "green onion"},
+            {"aubergine", "eggplant"},
+            {"brinjal", "eggplant"},
+            {"courgette", "zucchini"},
+            {"capsicum", "bell pepper"},
+            {"garbanzo bean", "chickpea"},
+            {"yoghurt", "yogurt"},
+            {"curd", "yogurt"},
+            {"minced meat", "ground meat"},
+            {"icing sugar", "powdered sugar"},
+            {"cornflour", "cornstarch"},
+    };
+
+    // Words ending in "s" that are not plurals
+    private static final String[] SINGULAR_WORDS = {
+            "molasses", "hummus", "couscous", "asparagus", "swiss", "grits", "citrus"
+    };
+
+    // Plurals the suffix rules get wrong, with their singular
+    private static final String[][] IRREGULAR_PLURALS = {
+            {"cookies", "cookie"},
+            {"pies", "pie"},
+            {"brownies", "brownie"},
+            {"smoothies", "smoothie"},
+            {"veggies", "veggie"},
+            {"leaves", "leaf"},
+            {"loaves", "loaf"},
+            {"halves", "half"},
+            {"knives", "knife"},
+    };
+
+    private static final IngredientCanonicalizer SHARED = new IngredientCanonicalizer();
+
+    // Canonical text by id
+    private final List<String> names = new ArrayList<>();
+    // Open-addressing table of canonical text -> id, slots hold id + 1 (0 = empty)
+    private int[] slots = new int[256];
+    private int[] slotHashes = new int[256];
+    // Canonical id -> id it is a synonym of, or itself
+    private int[] aliases = new int[64];
+
+    // Words exempt from singularization are interned first, ids below this count
+    private final int singularWordCount;
+    // Irregular plurals follow, ids from singularWordCount up to this count
+    private final int irregularPluralEnd;
+
+    // Reused buffer for the folded text
+    private char[] buffer = new char[64];
+
+    public static IngredientCanonicalizer shared() {
+        return SHARED;
+    }
+
+    public IngredientCanonicalizer() {
+        for (String word : SINGULAR_WORDS) internRaw(word);
+        singularWordCount = names.size();
+        for (String[] plural : IRREGULAR_PLURALS) internRaw(plural[0]);
+        irregularPluralEnd = names.size();
+        for (String[] synonym : SYNONYMS) {
+            int from = internRaw(synonym[0]);
+            int to = internRaw(synonym[1]);
+            aliases[from] = to;
+        }
+    }
+
+    /**
+     * Canonicalize ingredient text and return its interned id
+     * @param input Ingredient text as typed or stored
+     * @return Canonical id, shared by all spellings of the same ingredient
+     */
+    public synchronized int intern(CharSequence input) {
+        int length = canonicalize(input);
+        int id = lookup(buffer, length, hash(buffer, length));
+        if (id < 0) id = insert(new String(buffer, 0, length));
+        return aliases[id];
+    }
+
+    /**
+     * Id of an ingredient interned before, without adding new text to the table
+     * @param input Ingredient text as typed or stored
+     * @return Canonical id, or -1 when no spelling of it was interned
+     */
+    public synchronized int find(CharSequence input) {
+        int length = canonicalize(input);
+        int id = lookup(buffer, length, hash(buffer, length));
+        return id < 0 ? -1 : aliases[id];
+    }
+
+    /**
+     * Canonical text of an ingredient, without interning it
+     * @param input Ingredient text as typed or stored
+     * @return Canonical text, the same instance for every spelling of an interned ingredient
+     */
+    public synchronized String canonical(CharSequence input) {
+        int length = canonicalize(input);
+        int id = lookup(buffer, length, hash(buffer, length));
+        return id < 0 ? new String(buffer, 0, length) : names.get(aliases[id]);
+    }
+
+    // Fold and singularize into the buffer, returning the canonical length
+    private int canonicalize(CharSequence input) {
+        return singularize(fold(input == null ? "" : input));
+    }
+
+    /**
+     * Canonical text of every ingredient in a list, duplicates kept
+     */
+    public synchronized List<String> canonicalAll(List<String> inputs) {
+        List<String> canonical = new ArrayList<>();
+        if (inputs == null) return canonical;
+        for (String input : inputs) canonical.add(canonical(input));
+        return canonical;
+    }
+
+    public synchronized String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * Case fold into the buffer, trimming and collapsing whitespace runs to one space
+     * @return Folded length
+     */
+    private int fold(CharSequence input) {
+        int length = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < input.length(); ) {
+            int codePoint = Character.codePointAt(input, i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                length = append(length, ' ');
+                pendingSpace = false;
+            }
+            // Simple case folding: upper then lower maps variants like 'ſ' or 'K' together
+            int folded = Character.toLowerCase(Character.toUpperCase(codePoint));
+            if (Character.isBmpCodePoint(folded)) {
+                length = append(length, (char) folded);
+            } else {
+                length = append(length, Character.highSurrogate(folded));
+                length = append(length, Character.lowSurrogate(folded));
+            }
+        }
+        return length;
+    }
+
+    private int append(int length, char c) {
+        if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+        buffer[length] = c;
+        return length + 1;
+    }
+
+    /**
+     * Strip an English plural ending from the last word, in place
+     * @return New length
+     */
+    private int singularize(int length) {
+        int wordStart = length;
+        while (wordStart > 0 && buffer[wordStart - 1] != ' ') wordStart--;
+        int wordLength = length - wordStart;
+        if (wordLength < 4 || buffer[length - 1] != 's') return length;
+
+        int word = lookup(buffer, wordStart, wordLength, hash(buffer, wordStart, wordLength));
+        if (word >= 0 && word < singularWordCount) return length;
+        if (word >= singularWordCount && word < irregularPluralEnd) {
+            String singular = IRREGULAR_PLURALS[word - singularWordCount][1];
+            singular.getChars(0, singular.length(), buffer, wordStart);
+            return wordStart + singular.length();
+        }
+
+        if (endsWith(length, "ies")) {
+            buffer[length - 3] = 'y';
+            return length - 2;
+        }
+        if (endsWith(length, "oes") || endsWith(length, "ches") || endsWith(length, "shes")
+                || endsWith(length, "sses") || endsWith(length, "xes") || endsWith(length, "zes")) {
+            return length - 2;
+        }
+        if (endsWith(length, "ss") || endsWith(length, "us") || endsWith(length, "is")) return length;
+        return length - 1;
+    }
+
+    private boolean endsWith(int length, String suffix) {
+        int start = length - suffix.length();
+        if (start < 0) return false;
+        for (int i = 0; i < suffix.length(); i++) {
+            if (buffer[start + i] != suffix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // Intern text that is already canonical, used for the built-in tables
+    private int internRaw(String text) {
+        int length = fold(text);
+        int id = lookup(buffer, length, hash(buffer, length));
+        return id >= 0 ? id : insert(new String(buffer, 0, length));
+    }
+
+    private int lookup(char[] chars, int length, int hash) {
+        return lookup(chars, 0, length, hash);
+    }
+
+    private int lookup(char[] chars, int start, int length, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] != hash) continue;
+            String name = names.get(slots[slot] - 1);
+            if (regionEquals(name, chars, start, length)) return slots[slot] - 1;
+        }
+        return -1;
+    }
+
+    private int insert(String name) {
+        int id = names.size();
+        names.add(name);
+        if (id == aliases.length) aliases = Arrays.copyOf(aliases, id * 2);
+        aliases[id] = id;
+        if (names.size() * 2 > slots.length) rehash();
+        place(id, name.hashCode());
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        slotHashes = new int[slotHashes.length * 2];
+        for (int id = 0; id < names.size() - 1; id++) place(id, names.get(id).hashCode());
+    }
+
+    private void place(int id, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = id + 1;
+        slotHashes[slot] = hash;
+    }
+
+    // Same value as String.hashCode() of the region, so stored names can reuse it
+    private static int hash(char[] chars, int length) {
+        return hash(chars, 0, length);
+    }
+
+    private static int hash(char[] chars, int start, int length) {
+        int h = 0;
+        for (int i = start; i < start + length; i++) h = 31 * h + chars[i];
+        return h;
+    }
+
+    private static boolean regionEquals(String name, char[] chars, int start, int length) {
+        if (name.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[start + i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,256 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the ingredient terms that a pantry item covers with the same two-way
+ * containment as {@link RecipeMapper#isPantryMatch}, without comparing the item
+ * against every term:
+ * - an Aho-Corasick automaton over all terms finds every term the item contains
+ *   in one linear scan of the item
+ * - a sorted suffix index over all terms finds every term that contains the item
+ *   with one binary search over the sorted suffixes
+ */
+public class IngredientTermMatcher {
+
+    private final String[] terms;
+    // Terms that are empty strings: every pantry item contains them
+    private final int[] emptyTerms;
+
+    // Automaton nodes: node n has edges [edgeStarts[n], edgeStarts[n + 1]) of
+    // (edgeChars, edgeTargets), sorted by char for binary search
+    private final int[] edgeStarts;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] failLinks;
+    // Nearest node along the fail chain (itself included) that ends a term, or -1
+    private final int[] outputLinks;
+    // Terms ending exactly at each node: [outputStarts[n], outputStarts[n + 1]) of outputTerms
+    private final int[] outputStarts;
+    private final int[] outputTerms;
+
+    // Suffix index: (suffixTerms[i], suffixOffsets[i]) sorted by the suffix text
+    private final int[] suffixTerms;
+    private final int[] suffixOffsets;
+
+    // Dedup stamps reused between calls
+    private final int[] termStamps;
+    private int stamp;
+
+    public IngredientTermMatcher(String[] terms) {
+        this.terms = terms;
+        termStamps = new int[terms.length];
+
+        // Build the trie with hash maps first, then flatten it
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> endings = new ArrayList<>();
+        children.add(new HashMap<>());
+        endings.add(new ArrayList<>());
+        List<Integer> empty = new ArrayList<>();
+        for (int t = 0; t < terms.length; t++) {
+            String term = terms[t];
+            if (term.isEmpty()) {
+                empty.add(t);
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                Integer next = children.get(node).get(term.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(term.charAt(i), next);
+                    children.add(new HashMap<>());
+                    endings.add(new ArrayList<>());
+                }
+                node = next;
+            }
+            endings.get(node).add(t);
+        }
+        emptyTerms = toArray(empty);
+
+        int nodeCount = children.size();
+        edgeStarts = new int[nodeCount + 1];
+        int edgeCount = 0;
+        for (int n = 0; n < nodeCount; n++) edgeCount += children.get(n).size();
+        edgeChars = new char[edgeCount];
+        edgeTargets = new int[edgeCount];
+        outputStarts = new int[nodeCount + 1];
+        List<Integer> outputs = new ArrayList<>();
+        int e = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            edgeStarts[n] = e;
+            Character[] labels = children.get(n).keySet().toArray(new Character[0]);
+            Arrays.sort(labels);
+            for (Character label : labels) {
+                edgeChars[e] = label;
+                edgeTargets[e] = children.get(n).get(label);
+                e++;
+            }
+            outputStarts[n] = outputs.size();
+            outputs.addAll(endings.get(n));
+        }
+        edgeStarts[nodeCount] = e;
+        outputStarts[nodeCount] = outputs.size();
+        outputTerms = toArray(outputs);
+
+        // Breadth-first pass for fail and output links
+        failLinks = new int[nodeCount];
+        outputLinks = new int[nodeCount];
+        outputLinks[0] = -1;
+        int[] queue = new int[nodeCount];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = edgeStarts[node]; i < edgeStarts[node + 1]; i++) {
+                int child = edgeTargets[i];
+                int fail = 0;
+                if (node != 0) {
+                    int f = failLinks[node];
+                    while (true) {
+                        int next = step(f, edgeChars[i]);
+                        if (next >= 0) {
+                            fail = next;
+                            break;
+                        }
+                        if (f == 0) break;
+                        f = failLinks[f];
+                    }
+                }
+                failLinks[child] = fail;
+                outputLinks[child] = outputStarts[child] < outputStarts[child + 1] ? child : outputLinks[fail];
+                queue[tail++] = child;
+            }
+        }
+
+        // Every suffix of every term, sorted by its text
+        int suffixCount = 0;
+        for (String term : terms) suffixCount += term.length();
+        Integer[] order = new Integer[suffixCount];
+        int[] ownerTerms = new int[suffixCount];
+        int[] ownerOffsets = new int[suffixCount];
+        int s = 0;
+        for (int t = 0; t < terms.length; t++) {
+            for (int i = 0; i < terms[t].length(); i++) {
+                ownerTerms[s] = t;
+                ownerOffsets[s] = i;
+                order[s] = s;
+                s++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> compareSuffixes(
+                terms[ownerTerms[a]], ownerOffsets[a], terms[ownerTerms[b]], ownerOffsets[b]));
+        suffixTerms = new int[suffixCount];
+        suffixOffsets = new int[suffixCount];
+        for (int i = 0; i < suffixCount; i++) {
+            suffixTerms[i] = ownerTerms[order[i]];
+            suffixOffsets[i] = ownerOffsets[order[i]];
+        }
+    }
+
+    /**
+     * Collect the terms covered by a pantry item: terms it contains and terms containing it
+     * @param item Normalized pantry item
+     * @param out Receives the term ids, must hold at least {@link #termCount()} entries
+     * @return Number of term ids written to out
+     */
+    public synchronized int coveredTerms(String item, int[] out) {
+        if (++stamp == 0) {
+            Arrays.fill(termStamps, 0);
+            stamp = 1;
+        }
+        int count = 0;
+
+        // An empty item is contained in every term
+        if (item.isEmpty()) {
+            for (int t = 0; t < terms.length; t++) out[count++] = t;
+            return count;
+        }
+        for (int t : emptyTerms) count = emit(t, out, count);
+
+        // Terms contained in the item: one pass of the automaton
+        int node = 0;
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            while (true) {
+                int next = step(node, c);
+                if (next >= 0) {
+                    node = next;
+                    break;
+                }
+                if (node == 0) break;
+                node = failLinks[node];
+            }
+            for (int o = outputLinks[node]; o >= 0; o = outputLinks[failLinks[o]]) {
+                for (int k = outputStarts[o]; k < outputStarts[o + 1]; k++) count = emit(outputTerms[k], out, count);
+            }
+        }
+
+        // Terms containing the item: the suffixes starting with it form one sorted range
+        int from = lowerBound(item);
+        for (int i = from; i < suffixTerms.length && startsWith(suffixTerms[i], suffixOffsets[i], item); i++) {
+            count = emit(suffixTerms[i], out, count);
+        }
+        return count;
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    private int emit(int term, int[] out, int count) {
+        if (termStamps[term] == stamp) return count;
+        termStamps[term] = stamp;
+        out[count] = term;
+        return count + 1;
+    }
+
+    private int step(int node, char c) {
+        int lo = edgeStarts[node], hi = edgeStarts[node + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = edgeChars[mid];
+            if (label < c) lo = mid + 1;
+            else if (label > c) hi = mid - 1;
+            else return edgeTargets[mid];
+        }
+        return -1;
+    }
+
+    // First suffix that is not smaller than the query
+    private int lowerBound(String query) {
+        int lo = 0, hi = suffixTerms.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareSuffixes(terms[suffixTerms[mid]], suffixOffsets[mid], query, 0) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private boolean startsWith(int term, int offset, String prefix) {
+        return terms[term].startsWith(prefix, offset);
+    }
+
+    private static int compareSuffixes(String a, int offsetA, String b, int offsetB) {
+        int lengthA = a.length() - offsetA;
+        int lengthB = b.length() - offsetB;
+        int limit = Math.min(lengthA, lengthB);
+        for (int i = 0; i < limit; i++) {
+            char ca = a.charAt(offsetA + i);
+            char cb = b.charAt(offsetB + i);
+            if (ca != cb) return ca - cb;
+        }
+        return lengthA - lengthB;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) array[i] = values.get(i);
+        return array;
+    }
+}
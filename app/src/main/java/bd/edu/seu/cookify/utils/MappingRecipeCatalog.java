@@ -0,0 +1,86 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bd.edu.seu.cookify.models.RecipeMapping;
+
+/**
+ * Recipe catalog backed by in-memory {@link RecipeMapping} objects.
+ * Terms are the ingredients as written; {@link RecipeIndex} canonicalizes them.
+ */
+public class MappingRecipeCatalog implements RecipeCatalog {
+
+    private final List<RecipeMapping> mappings;
+    private final List<String> terms = new ArrayList<>();
+    // Recipe position -> catalog term ids of its ingredients
+    private final int[][] ingredients;
+
+    public MappingRecipeCatalog(List<RecipeMapping> mappings) {
+        this.mappings = new ArrayList<>(mappings);
+        ingredients = new int[this.mappings.size()][];
+
+        Map<String, Integer> termIds = new HashMap<>();
+        for (int r = 0; r < ingredients.length; r++) {
+            List<String> required = this.mappings.get(r).getRequiredIngredients();
+            ingredients[r] = new int[required == null ? 0 : required.size()];
+            for (int k = 0; k < ingredients[r].length; k++) {
+                String ingredient = required.get(k);
+                Integer id = termIds.get(ingredient);
+                if (id == null) {
+                    id = terms.size();
+                    termIds.put(ingredient, id);
+                    terms.add(ingredient);
+                }
+                ingredients[r][k] = id;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return mappings.size();
+    }
+
+    @Override
+    public String getId(int position) {
+        return mappings.get(position).getId();
+    }
+
+    @Override
+    public String getName(int position) {
+        return mappings.get(position).getName();
+    }
+
+    @Override
+    public String getCategory(int position) {
+        return mappings.get(position).getCategory();
+    }
+
+    @Override
+    public String getImageUrl(int position) {
+        return mappings.get(position).getImageUrl();
+    }
+
+    @Override
+    public int getIngredientCount(int position) {
+        return ingredients[position].length;
+    }
+
+    @Override
+    public int getIngredient(int position, int k) {
+        return ingredients[position][k];
+    }
+
+    @Override
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    @Override
+    public String getTerm(int term) {
+        return terms.get(term);
+    }
+}
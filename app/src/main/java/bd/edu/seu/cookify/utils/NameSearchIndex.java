@@ -0,0 +1,133 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive substring search over item names.
+ * Names are lowercased once when the index is built, and every 1, 2 and 3 character
+ * gram of a name gets a posting list of the items containing it. A query of up to
+ * three characters is answered by its own posting list; a longer query only checks
+ * the items listed under its rarest trigram, so a keystroke costs time proportional
+ * to the candidates instead of the catalog size.
+ * @param <T> Item type
+ */
+public class NameSearchIndex<T> {
+
+    private static final int MAX_GRAM = 3;
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final List<T> items;
+    // Lowercased name per item position
+    private final String[] keys;
+    // Packed gram -> positions of the items whose name contains it, ascending
+    private final Map<Long, int[]> postings = new HashMap<>();
+    private final int[] allPositions;
+
+    public NameSearchIndex(List<T> items, Function<T, String> nameOf) {
+        this.items = new ArrayList<>(items);
+        keys = new String[this.items.size()];
+        allPositions = new int[keys.length];
+
+        Map<Long, int[]> growing = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int p = 0; p < keys.length; p++) {
+            String name = nameOf.apply(this.items.get(p));
+            String key = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            keys[p] = key;
+            allPositions[p] = p;
+
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int i = 0; i + length <= key.length(); i++) {
+                    long gram = pack(key, i, length);
+                    int size = sizes.getOrDefault(gram, 0);
+                    int[] list = growing.get(gram);
+                    // Positions arrive in order, so a repeated gram of one name is the last entry
+                    if (list != null && list[size - 1] == p) continue;
+                    if (list == null) list = new int[4];
+                    else if (size == list.length) list = Arrays.copyOf(list, size * 2);
+                    list[size] = p;
+                    growing.put(gram, list);
+                    sizes.put(gram, size + 1);
+                }
+            }
+        }
+        for (Map.Entry<Long, int[]> entry : growing.entrySet()) {
+            postings.put(entry.getKey(), Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey())));
+        }
+    }
+
+    /**
+     * Items whose name contains the query, ignoring case
+     * @param query Search text, an empty query matches everything
+     * @return Matching items in their original order
+     */
+    public List<T> search(String query) {
+        int[] positions = searchPositions(query);
+        List<T> matches = new ArrayList<>(positions.length);
+        for (int p : positions) matches.add(items.get(p));
+        return matches;
+    }
+
+    /**
+     * Positions of the items whose name contains the query, ignoring case
+     * @param query Search text, an empty query matches everything
+     * @return Ascending item positions
+     */
+    public int[] searchPositions(String query) {
+        String q = fold(query);
+        if (q.isEmpty()) return allPositions;
+        if (q.length() <= MAX_GRAM) {
+            int[] exact = postings.get(pack(q, 0, q.length()));
+            return exact == null ? NO_POSITIONS : exact;
+        }
+
+        // The rarest trigram of the query bounds the candidates
+        int[] rarest = null;
+        for (int i = 0; i + MAX_GRAM <= q.length(); i++) {
+            int[] list = postings.get(pack(q, i, MAX_GRAM));
+            if (list == null) return NO_POSITIONS;
+            if (rarest == null || list.length < rarest.length) rarest = list;
+        }
+        int[] found = new int[rarest.length];
+        int count = 0;
+        for (int p : rarest) {
+            if (keys[p].contains(q)) found[count++] = p;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    public T get(int position) {
+        return items.get(position);
+    }
+
+    /**
+     * Lowercased name of an item, computed when the index was built
+     */
+    public String keyOf(int position) {
+        return keys[position];
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Fold a query the same way the item names were folded
+     */
+    public static String fold(String query) {
+        return query == null ? "" : query.toLowerCase(Locale.ROOT);
+    }
+
+    // A gram's chars in 16-bit lanes, its length in the top bits
+    private static long pack(String text, int start, int length) {
+        long gram = length;
+        for (int i = start; i < start + length; i++) gram = (gram << 16) | text.charAt(i);
+        return gram;
+    }
+}
@@ -0,0 +1,171 @@
+package bd.edu.seu.cookify.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+import bd.edu.seu.cookify.models.SubstituteItem;
+
+/**
+ * Runs pantry matching on a single background worker.
+ * Bursts of pantry edits are coalesced so only the latest snapshot is matched,
+ * work for an outdated snapshot stops early, and results are delivered on the
+ * main thread only if no newer snapshot was submitted in the meantime.
+ */
+public class PantryMatchService {
+
+    /**
+     * Receives suggestions on the main thread
+     */
+    public interface Callback {
+        void onSuggestions(List<RecipeSuggestion> suggestions);
+    }
+
+    private static class Request {
+        final long generation;
+        final List<String> pantryItems;
+        final int limit;
+        final Callback callback;
+
+        Request(long generation, List<String> pantryItems, int limit, Callback callback) {
+            this.generation = generation;
+            this.pantryItems = pantryItems;
+            this.limit = limit;
+            this.callback = callback;
+        }
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bumped on every submit and cancel; only the latest generation may deliver
+    private final AtomicLong generation = new AtomicLong();
+    // Latest snapshot not picked up by the worker yet
+    private final AtomicReference<Request> pending = new AtomicReference<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Worker thread only: the matcher and the pantry items it currently holds
+    private IncrementalRecipeMatcher matcher;
+    private final Map<String, Integer> appliedItems = new HashMap<>();
+
+    /**
+     * Match a pantry snapshot in the background, replacing any snapshot still waiting
+     * @param pantryItems Current pantry items, copied
+     * @param limit Maximum number of suggestions
+     * @param callback Receives the suggestions on the main thread if still current
+     */
+    public void submit(List<String> pantryItems, int limit, Callback callback) {
+        long current = generation.incrementAndGet();
+        pending.set(new Request(current, new ArrayList<>(pantryItems), limit, callback));
+        if (draining.compareAndSet(false, true)) worker.execute(this::drain);
+    }
+
+    /**
+     * Build the catalog index on the worker ahead of the first match, so the screen
+     * never builds it on the main thread and the first suggestions do not wait for it
+     */
+    public void prepare() {
+        if (worker.isShutdown()) return;
+        worker.execute(this::ensureMatcher);
+    }
+
+    /**
+     * Install substitutes on the worker, so the closure and index update never
+     * run on the main thread. The matcher recounts on its next use
+     * @param items Substitutes as loaded from the substitutes collection
+     * @param onApplied Run on the main thread once matching uses them
+     */
+    public void updateSubstitutes(List<SubstituteItem> items, Runnable onApplied) {
+        if (worker.isShutdown()) return;
+        List<SubstituteItem> snapshot = new ArrayList<>(items);
+        worker.execute(() -> {
+            RecipeMapper.setSubstitutes(snapshot);
+            mainHandler.post(() -> {
+                if (!worker.isShutdown()) onApplied.run();
+            });
+        });
+    }
+
+    /**
+     * Drop the waiting snapshot and any result not delivered yet
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        pending.set(null);
+    }
+
+    /**
+     * Cancel pending work and stop the worker
+     */
+    public void shutdown() {
+        cancel();
+        worker.shutdownNow();
+    }
+
+    private void drain() {
+        while (true) {
+            Request request;
+            while ((request = pending.getAndSet(null)) != null) {
+                if (request.generation != generation.get()) continue;
+                run(request);
+            }
+            draining.set(false);
+            // A submit may have slipped in after the last poll
+            if (pending.get() == null || !draining.compareAndSet(false, true)) return;
+        }
+    }
+
+    // The catalog and index are loaded here, never on the main thread
+    private void ensureMatcher() {
+        if (matcher == null) matcher = RecipeMapper.newIncrementalMatcher();
+    }
+
+    private void run(Request request) {
+        ensureMatcher();
+        if (!sync(request.pantryItems)) return;
+
+        List<RecipeSuggestion> suggestions = matcher.getTopSuggestions(request.limit);
+        if (request.generation != generation.get()) return;
+
+        mainHandler.post(() -> {
+            if (request.generation == generation.get()) request.callback.onSuggestions(suggestions);
+        });
+    }
+
+    /**
+     * Bring the matcher to the snapshot by applying only the added and removed items
+     * @return false if a newer snapshot arrived and the remaining work was skipped
+     */
+    private boolean sync(List<String> pantryItems) {
+        Map<String, Integer> target = new HashMap<>();
+        for (String item : pantryItems) target.merge(item, 1, Integer::sum);
+
+        for (String item : new ArrayList<>(appliedItems.keySet())) {
+            int surplus = appliedItems.get(item) - target.getOrDefault(item, 0);
+            for (int i = 0; i < surplus; i++) {
+                if (pending.get() != null) return false;
+                matcher.remove(item);
+                appliedItems.merge(item, -1, Integer::sum);
+            }
+            if (appliedItems.get(item) == 0) appliedItems.remove(item);
+        }
+        for (Map.Entry<String, Integer> entry : target.entrySet()) {
+            int missing = entry.getValue() - appliedItems.getOrDefault(entry.getKey(), 0);
+            for (int i = 0; i < missing; i++) {
+                if (pending.get() != null) return false;
+                matcher.add(entry.getKey());
+                appliedItems.merge(entry.getKey(), 1, Integer::sum);
+            }
+        }
+        return true;
+    }
+}
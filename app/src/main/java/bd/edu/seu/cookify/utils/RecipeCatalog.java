@@ -0,0 +1,30 @@
+package bd.edu.seu.cookify.utils;
+
+/**
+ * Read-only view of the recipes used for pantry matching.
+ * Recipes are addressed by position and their ingredients by catalog term id,
+ * so implementations can serve fields on demand instead of holding objects.
+ */
+public interface RecipeCatalog {
+
+    int size();
+
+    String getId(int position);
+
+    String getName(int position);
+
+    String getCategory(int position);
+
+    String getImageUrl(int position);
+
+    // Number of ingredient entries of a recipe
+    int getIngredientCount(int position);
+
+    // Catalog term id of the k-th ingredient of a recipe
+    int getIngredient(int position, int k);
+
+    int getTermCount();
+
+    // Ingredient text of a catalog term
+    String getTerm(int term);
+}
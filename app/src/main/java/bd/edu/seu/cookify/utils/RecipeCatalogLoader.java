@@ -0,0 +1,60 @@
+package bd.edu.seu.cookify.utils;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Opens the binary recipe catalog packaged in the app assets
+ */
+public class RecipeCatalogLoader {
+
+    public static final String CATALOG_ASSET = "recipe_catalog.bin";
+
+    /**
+     * Open the packaged catalog, memory-mapped when the asset is stored uncompressed
+     * @param context Any context, the application context is used
+     * @return Catalog, or null when the asset is missing or invalid
+     */
+    public static RecipeCatalog openAssetCatalog(Context context) {
+        Context app = context.getApplicationContext();
+        try {
+            return new BinaryRecipeCatalog(mapAsset(app));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w("RecipeCatalogLoader", "Binary recipe catalog unavailable", e);
+            return null;
+        }
+    }
+
+    private static ByteBuffer mapAsset(Context context) throws IOException {
+        try (AssetFileDescriptor fd = context.getAssets().openFd(CATALOG_ASSET);
+             FileInputStream in = new FileInputStream(fd.getFileDescriptor())) {
+            // The mapping stays valid after the channel is closed
+            return in.getChannel().map(FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getLength());
+        } catch (IOException compressed) {
+            // Compressed assets cannot be mapped, copy into a direct buffer instead
+            try (InputStream in = context.getAssets().open(CATALOG_ASSET)) {
+                byte[] chunk = new byte[16 * 1024];
+                ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(in.available(), chunk.length));
+                int read;
+                while ((read = in.read(chunk)) > 0) {
+                    if (buffer.remaining() < read) {
+                        ByteBuffer larger = ByteBuffer.allocateDirect((buffer.capacity() + read) * 2);
+                        buffer.flip();
+                        larger.put(buffer);
+                        buffer = larger;
+                    }
+                    buffer.put(chunk, 0, read);
+                }
+                buffer.flip();
+                return buffer;
+            }
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import bd.edu.seu.cookify.models.Recipe;
+import bd.edu.seu.cookify.models.RecipeMapping;
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+
+/**
+ * Inverted ingredient index over a fixed recipe catalog.
+ * Every distinct required ingredient becomes a term with a dense integer id and
+ * a posting list of the recipes that need it, so matching only touches recipes
+ * that share at least one ingredient with the pantry. Each recipe also keeps its
+ * required terms as a sparse bitset for word-wise subset checks.
+ */
+public class RecipeIndex {
+
+    // Catalogs smaller than this are matched sequentially even in parallel mode
+    public static final int PARALLEL_THRESHOLD = 20_000;
+    // Recipes per fork-join leaf, small enough for a chunk's bitsets to stay in cache
+    private static final int PARALLEL_CHUNK = 4_096;
+    private static final int[] NO_TERMS = new int[0];
+
+    private final RecipeCatalog catalog;
+    // Catalog term id -> canonical ingredient text
+    private final String[] catalogTerms;
+    // Distinct required ingredients (term id -> ingredient), most used first
+    private final String[] terms;
+    // Term id -> positions of the recipes requiring it, ascending
+    private final int[][] postings;
+    // Recipe position -> number of distinct required terms
+    private final int[] requiredCounts;
+    // Recipes without any required ingredient, they always match
+    private final int[] unconditional;
+
+    // Required terms as bitsets: recipe r owns entries [bitStarts[r], bitStarts[r + 1])
+    // of (bitWords, bitMasks), one entry per non-empty 64-bit word
+    private final int[] bitStarts;
+    private final int[] bitWords;
+    private final long[] bitMasks;
+
+    // Finds the terms a pantry item covers without comparing against every term
+    private final IngredientTermMatcher termMatcher;
+    // Canonical ingredient id -> term id, for terms reached through substitutes
+    private final Map<Integer, Integer> termsByCanonicalId = new HashMap<>();
+    // Canonical id of a substitute -> terms it satisfies, precomputed from the substitute graph
+    private Map<Integer, int[]> substituteTerms = new HashMap<>();
+    // Bumped whenever the substitutes change, so incremental matchers know to recount
+    private int substituteVersion;
+
+    // Scratch state reused between calls, reset through the touched list
+    private final int[] matchedCounts;
+    private final int[] coveredTerms;
+    private final int[] touched;
+    private final long[] pantryBits;
+    private final long[] coveredBits;
+    private final int[] complete;
+    // Pantry items of the current call, normalized into a reused list instead of a new set per call
+    private final List<String> pantryScratch = new ArrayList<>();
+
+    public RecipeIndex(List<RecipeMapping> mappings) {
+        this(new MappingRecipeCatalog(mappings));
+    }
+
+    public RecipeIndex(RecipeCatalog catalog) {
+        this.catalog = catalog;
+        int recipeCount = catalog.size();
+
+        // Catalog terms are canonicalized once, not once per recipe
+        catalogTerms = new String[catalog.getTermCount()];
+        for (int t = 0; t < catalogTerms.length; t++) {
+            catalogTerms[t] = IngredientCanonicalizer.shared().canonical(catalog.getTerm(t));
+        }
+
+        // Collect distinct ingredients per recipe and count how often each is used
+        List<Set<String>> recipeIngredients = new ArrayList<>(recipeCount);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (int r = 0; r < recipeCount; r++) {
+            Set<String> distinct = new LinkedHashSet<>(requiredOf(r));
+            for (String ingredient : distinct) frequencies.merge(ingredient, 1, Integer::sum);
+            recipeIngredients.add(distinct);
+        }
+
+        // Frequent ingredients get the lowest ids so they share the same few words
+        terms = frequencies.keySet().toArray(new String[0]);
+        Arrays.sort(terms, (a, b) -> {
+            int byFrequency = Integer.compare(frequencies.get(b), frequencies.get(a));
+            return byFrequency != 0 ? byFrequency : a.compareTo(b);
+        });
+        Map<String, Integer> termIds = new HashMap<>();
+        for (int t = 0; t < terms.length; t++) termIds.put(terms[t], t);
+
+        postings = new int[terms.length][];
+        for (int t = 0; t < terms.length; t++) postings[t] = new int[frequencies.get(terms[t])];
+        int[] postingSizes = new int[terms.length];
+
+        requiredCounts = new int[recipeCount];
+        bitStarts = new int[recipeCount + 1];
+        List<Integer> noRequirements = new ArrayList<>();
+        List<Integer> words = new ArrayList<>();
+        List<Long> masks = new ArrayList<>();
+
+        for (int r = 0; r < recipeCount; r++) {
+            Set<String> distinct = recipeIngredients.get(r);
+            int[] ids = new int[distinct.size()];
+            int i = 0;
+            for (String ingredient : distinct) {
+                int id = termIds.get(ingredient);
+                postings[id][postingSizes[id]++] = r;
+                ids[i++] = id;
+            }
+            Arrays.sort(ids);
+
+            bitStarts[r] = words.size();
+            for (int id : ids) {
+                int word = id >>> 6;
+                int last = words.size() - 1;
+                if (last >= bitStarts[r] && words.get(last) == word) {
+                    masks.set(last, masks.get(last) | (1L << id));
+                } else {
+                    words.add(word);
+                    masks.add(1L << id);
+                }
+            }
+            requiredCounts[r] = ids.length;
+            if (ids.length == 0) noRequirements.add(r);
+        }
+        bitStarts[recipeCount] = words.size();
+        bitWords = new int[words.size()];
+        bitMasks = new long[masks.size()];
+        for (int i = 0; i < bitWords.length; i++) {
+            bitWords[i] = words.get(i);
+            bitMasks[i] = masks.get(i);
+        }
+        unconditional = toArray(noRequirements);
+
+        termMatcher = new IngredientTermMatcher(terms);
+        for (int t = 0; t < terms.length; t++) {
+            termsByCanonicalId.put(IngredientCanonicalizer.shared().intern(terms[t]), t);
+        }
+        matchedCounts = new int[recipeCount];
+        coveredTerms = new int[terms.length];
+        touched = new int[recipeCount];
+        pantryBits = new long[(terms.length + 63) >>> 6];
+        coveredBits = new long[pantryBits.length];
+        complete = new int[recipeCount];
+    }
+
+    /**
+     * Find recipes whose required ingredients are all present in the pantry
+     * @param normalizedPantry Normalized pantry items
+     * @param mode Matching strategy to use
+     * @return Matching recipes in catalog order
+     */
+    public synchronized List<Recipe> findMatches(Collection<String> normalizedPantry, RecipeMapper.MatchMode mode) {
+        switch (mode) {
+            case SCAN:
+                return findMatchesByScan(normalizedPantry);
+            case INDEX:
+                return findMatchesByPostings(normalizedPantry);
+            case PARALLEL:
+                return findMatchesInParallel(normalizedPantry, RecipeMapper.getMatchPool());
+            case BITSET:
+            default:
+                return findMatchesByBitset(normalizedPantry);
+        }
+    }
+
+    /**
+     * {@link #findMatches} for pantry items as typed, normalized under the index lock
+     * @param pantryItems Pantry items, duplicates and spellings of the same ingredient allowed
+     * @param mode Matching strategy to use
+     * @return Matching recipes in catalog order
+     */
+    public synchronized List<Recipe> findMatchesForPantry(List<String> pantryItems, RecipeMapper.MatchMode mode) {
+        try {
+            return findMatches(normalizeIntoScratch(pantryItems), mode);
+        } finally {
+            pantryScratch.clear();
+        }
+    }
+
+    /**
+     * {@link #findTopSuggestions} for pantry items as typed, normalized under the index lock
+     */
+    public synchronized List<RecipeSuggestion> findTopSuggestionsForPantry(List<String> pantryItems, int limit) {
+        try {
+            return findTopSuggestions(normalizeIntoScratch(pantryItems), limit);
+        } finally {
+            pantryScratch.clear();
+        }
+    }
+
+    // Duplicates are harmless: they set the same pantry bits again
+    private List<String> normalizeIntoScratch(List<String> pantryItems) {
+        pantryScratch.clear();
+        for (String item : pantryItems) pantryScratch.add(RecipeMapper.normalizeString(item));
+        return pantryScratch;
+    }
+
+    /**
+     * Bitset matching with the catalog split into chunks on a fork-join pool.
+     * Chunk results are joined left to right, so the order is the catalog order
+     * whatever the pool size. Small catalogs fall back to the sequential scan
+     * @param normalizedPantry Normalized pantry items
+     * @param pool Pool to run the chunks on
+     * @return Matching recipes in catalog order
+     */
+    public synchronized List<Recipe> findMatchesInParallel(Collection<String> normalizedPantry, ForkJoinPool pool) {
+        if (catalog.size() < PARALLEL_THRESHOLD) return findMatchesByBitset(normalizedPantry);
+
+        // The pantry bitset is filled once and only read by the chunk tasks
+        fillPantryBits(normalizedPantry);
+        int[] positions = pool.invoke(new MatchChunkTask(0, catalog.size()));
+
+        List<Recipe> matches = new ArrayList<>(positions.length);
+        for (int r : positions) matches.add(recipeAt(r));
+        return matches;
+    }
+
+    /**
+     * Matches a range of recipe positions, splitting it in halves down to one chunk
+     */
+    @SuppressWarnings("serial") // Never serialized, it only lives on the match pool
+    private class MatchChunkTask extends RecursiveTask<int[]> {
+        private final int from;
+        private final int to;
+
+        MatchChunkTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                int[] found = new int[to - from];
+                int count = 0;
+                for (int r = from; r < to; r++) {
+                    if (coversRecipe(r)) found[count++] = r;
+                }
+                return Arrays.copyOf(found, count);
+            }
+
+            int middle = (from + to) >>> 1;
+            MatchChunkTask left = new MatchChunkTask(from, middle);
+            MatchChunkTask right = new MatchChunkTask(middle, to);
+            left.fork();
+            int[] rightFound = right.compute();
+            int[] leftFound = left.join();
+
+            int[] merged = Arrays.copyOf(leftFound, leftFound.length + rightFound.length);
+            System.arraycopy(rightFound, 0, merged, leftFound.length, rightFound.length);
+            return merged;
+        }
+    }
+
+    /**
+     * Reference path: check every recipe with {@link RecipeMapper#isPantryMatch}.
+     * Plain containment only, substitutes are not taken into account
+     */
+    private List<Recipe> findMatchesByScan(Collection<String> normalizedPantry) {
+        Set<String> pantrySet = new LinkedHashSet<>(normalizedPantry);
+        List<Recipe> matches = new ArrayList<>();
+        for (int r = 0; r < catalog.size(); r++) {
+            if (RecipeMapper.isPantryMatch(pantrySet, requiredOf(r))) {
+                matches.add(recipeAt(r));
+            }
+        }
+        return matches;
+    }
+
+    // Canonical required ingredients of a recipe, as listed in the catalog
+    private List<String> requiredOf(int r) {
+        int count = catalog.getIngredientCount(r);
+        List<String> required = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) required.add(catalogTerms[catalog.getIngredient(r, k)]);
+        return required;
+    }
+
+    /**
+     * Count satisfied terms only for recipes reachable through the postings
+     */
+    private List<Recipe> findMatchesByPostings(Collection<String> normalizedPantry) {
+        fillPantryBits(normalizedPantry);
+
+        int touchedCount = 0;
+        for (int t = 0; t < terms.length; t++) {
+            if ((pantryBits[t >>> 6] & (1L << t)) == 0) continue;
+            for (int r : postings[t]) {
+                if (matchedCounts[r]++ == 0) touched[touchedCount++] = r;
+            }
+        }
+
+        int completeCount = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int r = touched[i];
+            if (matchedCounts[r] == requiredCounts[r]) complete[completeCount++] = r;
+            matchedCounts[r] = 0;
+        }
+        for (int r : unconditional) complete[completeCount++] = r;
+        Arrays.sort(complete, 0, completeCount);
+
+        List<Recipe> matches = new ArrayList<>(completeCount);
+        for (int i = 0; i < completeCount; i++) matches.add(recipeAt(complete[i]));
+        return matches;
+    }
+
+    /**
+     * Test each recipe's required bitset against the pantry bitset, word by word
+     */
+    private List<Recipe> findMatchesByBitset(Collection<String> normalizedPantry) {
+        fillPantryBits(normalizedPantry);
+
+        List<Recipe> matches = new ArrayList<>();
+        for (int r = 0; r < requiredCounts.length; r++) {
+            if (coversRecipe(r)) matches.add(recipeAt(r));
+        }
+        return matches;
+    }
+
+    /**
+     * Rank recipes by how much of them the pantry covers and keep the best ones.
+     * Only recipes sharing at least one ingredient with the pantry are scored,
+     * and a bounded heap keeps the top entries instead of sorting the catalog.
+     * @param normalizedPantry Normalized pantry items
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, best first
+     */
+    public synchronized List<RecipeSuggestion> findTopSuggestions(Collection<String> normalizedPantry, int limit) {
+        if (limit <= 0) return new ArrayList<>();
+        fillPantryBits(normalizedPantry);
+
+        int touchedCount = 0;
+        for (int t = 0; t < terms.length; t++) {
+            if ((pantryBits[t >>> 6] & (1L << t)) == 0) continue;
+            for (int r : postings[t]) {
+                if (matchedCounts[r]++ == 0) touched[touchedCount++] = r;
+            }
+        }
+
+        List<RecipeSuggestion> ranked = rankCandidates(touched, touchedCount, matchedCounts, pantryBits, limit);
+        for (int i = 0; i < touchedCount; i++) matchedCounts[touched[i]] = 0;
+        return ranked;
+    }
+
+    /**
+     * Keep the best ranked recipes among the candidates and the recipes without
+     * requirements, using a bounded min-heap of recipe positions
+     * @param candidates Recipe positions with at least one matched ingredient
+     * @param candidateCount Number of valid entries in candidates
+     * @param matched Matched ingredient count per recipe position
+     * @param satisfied Bitset of the terms covered by the pantry
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, best first
+     */
+    synchronized List<RecipeSuggestion> rankCandidates(int[] candidates, int candidateCount, int[] matched,
+                                                       long[] satisfied, int limit) {
+        int total = candidateCount + unconditional.length;
+
+        // Min-heap on rank: the root is the weakest of the kept suggestions
+        int[] heap = new int[Math.max(0, Math.min(limit, total))];
+        int heapSize = 0;
+        for (int i = 0; i < total; i++) {
+            int r = i < candidateCount ? candidates[i] : unconditional[i - candidateCount];
+            if (heapSize < heap.length) {
+                heap[heapSize++] = r;
+                siftUp(heap, heapSize - 1, matched);
+            } else if (compareRank(r, heap[0], matched) > 0) {
+                heap[0] = r;
+                siftDown(heap, heapSize, 0, matched);
+            }
+        }
+
+        // Drain weakest first, filling the result from the back
+        RecipeSuggestion[] ranked = new RecipeSuggestion[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int r = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, 0, matched);
+            ranked[i] = new RecipeSuggestion(recipeAt(r), matched[r], requiredCounts[r], missingTerms(r, satisfied));
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    /**
+     * Order two recipes by fewest missing ingredients, then highest coverage,
+     * then most matched ingredients, then catalog position
+     * @return positive when recipe a ranks above recipe b
+     */
+    private int compareRank(int a, int b, int[] matched) {
+        int missingA = requiredCounts[a] - matched[a];
+        int missingB = requiredCounts[b] - matched[b];
+        if (missingA != missingB) return Integer.compare(missingB, missingA);
+
+        // matchedA / requiredA vs matchedB / requiredB, without division
+        long coverageA = (long) matched[a] * Math.max(requiredCounts[b], 1);
+        long coverageB = (long) matched[b] * Math.max(requiredCounts[a], 1);
+        if (coverageA != coverageB) return Long.compare(coverageA, coverageB);
+
+        if (matched[a] != matched[b]) return Integer.compare(matched[a], matched[b]);
+        return Integer.compare(b, a);
+    }
+
+    private void siftUp(int[] heap, int i, int[] matched) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compareRank(heap[i], heap[parent], matched) >= 0) return;
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, int i, int[] matched) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int weakest = left;
+            int right = left + 1;
+            if (right < size && compareRank(heap[right], heap[left], matched) < 0) weakest = right;
+            if (compareRank(heap[weakest], heap[i], matched) >= 0) return;
+            swap(heap, i, weakest);
+            i = weakest;
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * Required ingredients of a recipe that are not covered by the given term bitset
+     */
+    private List<String> missingTerms(int r, long[] satisfied) {
+        List<String> missing = new ArrayList<>();
+        for (int i = bitStarts[r], end = bitStarts[r + 1]; i < end; i++) {
+            long absent = bitMasks[i] & ~satisfied[bitWords[i]];
+            while (absent != 0) {
+                int bit = Long.numberOfTrailingZeros(absent);
+                missing.add(terms[(bitWords[i] << 6) + bit]);
+                absent &= absent - 1;
+            }
+        }
+        return missing;
+    }
+
+    private boolean coversRecipe(int r) {
+        for (int i = bitStarts[r], end = bitStarts[r + 1]; i < end; i++) {
+            long mask = bitMasks[i];
+            if ((pantryBits[bitWords[i]] & mask) != mask) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Terms covered by a single normalized pantry item
+     * @param normalizedItem Normalized pantry item
+     * @return Ids of the covered terms
+     */
+    synchronized int[] termsCoveredBy(String normalizedItem) {
+        int count = termMatcher.coveredTerms(normalizedItem, coveredTerms);
+        int[] extra = substituteTermsOf(normalizedItem);
+        if (extra.length == 0) return Arrays.copyOf(coveredTerms, count);
+
+        // Substitute terms the item does not already cover by containment
+        for (int i = 0; i < count; i++) coveredBits[coveredTerms[i] >>> 6] |= 1L << coveredTerms[i];
+        int[] covered = Arrays.copyOf(coveredTerms, count + extra.length);
+        for (int t : extra) {
+            if ((coveredBits[t >>> 6] & (1L << t)) == 0) covered[count++] = t;
+        }
+        Arrays.fill(coveredBits, 0L);
+        return Arrays.copyOf(covered, count);
+    }
+
+    /**
+     * Let pantry items satisfy the ingredients they can substitute for.
+     * The graph's closure is resolved to term ids once here, so matching only
+     * needs one lookup per pantry item
+     * @param graph Substitute closure, null to match without substitutes
+     */
+    public synchronized void setSubstitutes(SubstituteGraph graph) {
+        Map<Integer, int[]> resolved = new HashMap<>();
+        if (graph != null) {
+            for (int substitute : graph.substitutes()) {
+                int[] replaceable = graph.replaceableBy(substitute);
+                int[] found = new int[replaceable.length];
+                int count = 0;
+                for (int canonicalId : replaceable) {
+                    Integer term = termsByCanonicalId.get(canonicalId);
+                    if (term != null) found[count++] = term;
+                }
+                if (count > 0) resolved.put(substitute, Arrays.copyOf(found, count));
+            }
+        }
+        substituteTerms = resolved;
+        substituteVersion++;
+    }
+
+    synchronized int substituteVersion() {
+        return substituteVersion;
+    }
+
+    // Terms a normalized pantry item satisfies as a substitute. Pantry text is only
+    // looked up, so arbitrary input never grows the shared table
+    private int[] substituteTermsOf(String normalizedItem) {
+        if (substituteTerms.isEmpty()) return NO_TERMS;
+        int id = IngredientCanonicalizer.shared().find(normalizedItem);
+        if (id < 0) return NO_TERMS;
+        int[] found = substituteTerms.get(id);
+        return found == null ? NO_TERMS : found;
+    }
+
+    int[] postingsOf(int term) {
+        return postings[term];
+    }
+
+    int requiredCountOf(int r) {
+        return requiredCounts[r];
+    }
+
+    int[] unconditionalRecipes() {
+        return unconditional;
+    }
+
+    /**
+     * Mark the terms covered by the pantry, using the same two-way
+     * containment as {@link RecipeMapper#isPantryMatch} plus the terms
+     * each item can substitute for
+     */
+    private void fillPantryBits(Collection<String> normalizedPantry) {
+        Arrays.fill(pantryBits, 0L);
+        for (String pantryItem : normalizedPantry) {
+            int count = termMatcher.coveredTerms(pantryItem, coveredTerms);
+            for (int i = 0; i < count; i++) {
+                int t = coveredTerms[i];
+                pantryBits[t >>> 6] |= 1L << t;
+            }
+            for (int t : substituteTermsOf(pantryItem)) pantryBits[t >>> 6] |= 1L << t;
+        }
+    }
+
+    // A new Recipe per result: callers own it and may hand it to another thread
+    Recipe recipeAt(int r) {
+        Recipe recipe = new Recipe(catalog.getName(r), catalog.getCategory(r), catalog.getImageUrl(r));
+        recipe.setId(catalog.getId(r));
+        return recipe;
+    }
+
+    public int size() {
+        return catalog.size();
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * Canonical text of a required ingredient
+     * @param term Term id, terms are ordered by how many recipes need them
+     */
+    public String getTerm(int term) {
+        return terms[term];
+    }
+
+    /**
+     * Number of recipes requiring an ingredient
+     */
+    public int getTermFrequency(int term) {
+        return postings[term].length;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) array[i] = values.get(i);
+        return array;
+    }
+}
@@ -1,18 +1,48 @@
 package bd.edu.seu.cookify.utils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 import bd.edu.seu.cookify.models.Recipe;
-import bd.edu.seu.cookify.models.RecipeMapping;
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+import bd.edu.seu.cookify.models.SubstituteItem;
 
 /**
  * Utility class for mapping pantry items to suggested recipes
  */
 public class RecipeMapper {
+
+    /**
+     * Strategies for checking which recipes the pantry covers
+     */
+    public enum MatchMode {
+        // Compare every required ingredient with every pantry item (reference)
+        SCAN,
+        // Count satisfied ingredients through the inverted index postings
+        INDEX,
+        // Word-wise subset test of each recipe's ingredient bitset
+        BITSET,
+        // BITSET split into catalog chunks on a fork-join pool, sequential for small catalogs
+        PARALLEL
+    }
+
+    // Inverted ingredient index over the mapping catalog, built once on first use
+    private static RecipeIndex recipeIndex;
+    // Where the catalog comes from, read lazily when the index is first needed
+    private static Supplier<RecipeCatalog> catalogSource;
+    // Bounded pool for PARALLEL matching, one worker per core
+    private static ForkJoinPool matchPool;
+    // Which ingredients can stand in for which, applied to the index once it exists
+    private static SubstituteGraph substituteGraph;
+    // Ingredient autocomplete, weighted by how many recipes use each ingredient
+    private static CompletionTrie ingredientCompletions;
     
     /**
      * Get mapped recipes based on pantry items
@@ -20,37 +50,148 @@ public class RecipeMapper {
      * @return List of matching recipes
      */
     public static List<Recipe> getMappedRecipes(List<String> pantryItems) {
-        List<Recipe> matches = new ArrayList<>();
-        
+        return getMappedRecipes(pantryItems, MatchMode.BITSET);
+    }
+
+    /**
+     * Get mapped recipes based on pantry items using a specific matching strategy
+     * @param pantryItems List of pantry items
+     * @param mode Matching strategy
+     * @return List of matching recipes
+     */
+    public static List<Recipe> getMappedRecipes(List<String> pantryItems, MatchMode mode) {
         if (pantryItems == null || pantryItems.isEmpty()) {
-            return matches;
+            return new ArrayList<>();
         }
-        
-        // Normalize pantry items for matching
-        Set<String> normalizedPantrySet = new HashSet<>();
-        for (String item : pantryItems) {
-            normalizedPantrySet.add(normalizeString(item));
+
+        // Normalized into the index's reused buffer, no per-call set
+        return getRecipeIndex().findMatchesForPantry(pantryItems, mode);
+    }
+
+    /**
+     * Get recipes ranked by how much of their ingredients the pantry covers,
+     * including partial matches
+     * @param pantryItems List of pantry items
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, complete matches first
+     */
+    public static List<RecipeSuggestion> getSuggestedRecipes(List<String> pantryItems, int limit) {
+        if (pantryItems == null || pantryItems.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        // Check each recipe mapping
-        for (RecipeMapping mapping : getRecipeMappings()) {
-            if (isPantryMatch(normalizedPantrySet, mapping.getRequiredIngredients())) {
-                Recipe recipe = new Recipe(mapping.getName(), mapping.getCategory(), mapping.getImageUrl());
-                recipe.setId(mapping.getId());
-                matches.add(recipe);
-            }
+
+        return getRecipeIndex().findTopSuggestionsForPantry(pantryItems, limit);
+    }
+
+    /**
+     * Create a matcher that updates suggestions one pantry edit at a time
+     * @return Incremental matcher over the shared recipe index
+     */
+    public static IncrementalRecipeMatcher newIncrementalMatcher() {
+        return new IncrementalRecipeMatcher(getRecipeIndex());
+    }
+
+    /**
+     * Get the fork-join pool used by {@link MatchMode#PARALLEL}, creating it on first use
+     * @return Pool with one worker per available core
+     */
+    public static synchronized ForkJoinPool getMatchPool() {
+        if (matchPool == null) {
+            matchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return matchPool;
+    }
+
+    /**
+     * Set where the recipe catalog is loaded from. It is only read when the
+     * index is first built; a null catalog leaves the index empty
+     * @param source Catalog source, e.g. the packaged binary catalog
+     */
+    public static synchronized void setCatalogSource(Supplier<RecipeCatalog> source) {
+        if (recipeIndex == null) catalogSource = source;
+    }
+
+    /**
+     * Let pantry items count as the ingredients they can substitute for,
+     * following chains of substitutes. Applies to every mode except SCAN
+     * @param items Substitutes as loaded from the substitutes collection
+     */
+    public static synchronized void setSubstitutes(List<SubstituteItem> items) {
+        substituteGraph = new SubstituteGraph(items);
+        if (recipeIndex != null) recipeIndex.setSubstitutes(substituteGraph);
+    }
+
+    /**
+     * Get completions over the ingredient vocabulary of the catalog, building them on
+     * first use. Suggested text is canonical, so picking it matches recipes exactly
+     * @param topK Completions per prefix, only used when first built
+     * @return Completion trie weighted by how many recipes need each ingredient
+     */
+    public static synchronized CompletionTrie getIngredientCompletions(int topK) {
+        if (ingredientCompletions == null) {
+            RecipeIndex index = getRecipeIndex();
+            Map<String, Integer> weights = new HashMap<>();
+            for (int t = 0; t < index.termCount(); t++) weights.put(index.getTerm(t), index.getTermFrequency(t));
+            ingredientCompletions = new CompletionTrie(weights, topK);
+        }
+        return ingredientCompletions;
+    }
+
+    /**
+     * Get the shared recipe index, building it on first use
+     * @return Index over all recipe mappings
+     */
+    public static synchronized RecipeIndex getRecipeIndex() {
+        if (recipeIndex == null) {
+            RecipeCatalog catalog = catalogSource == null ? null : catalogSource.get();
+            // Without the packaged catalog there is nothing to match; it is generated from
+            // app/src/main/catalog/recipe_mappings.csv, the only list of recipes
+            if (catalog == null) catalog = new MappingRecipeCatalog(Collections.emptyList());
+            recipeIndex = new RecipeIndex(catalog);
+            if (substituteGraph != null) recipeIndex.setSubstitutes(substituteGraph);
         }
-        
-        return matches;
+        return recipeIndex;
     }
     
     /**
-     * Check if pantry contains all required ingredients for a recipe
+     * Canonical form of a Firestore recipe's ingredients, the form pantry items
+     * and catalog terms are compared in
+     * @param recipe Recipe as read from the recipes collection
+     * @return One canonical ingredient per entry of {@link Recipe#getIngredients()}
+     */
+    public static List<String> canonicalIngredientsOf(Recipe recipe) {
+        return IngredientCanonicalizer.shared().canonicalAll(recipe.getIngredients());
+    }
+
+    /**
+     * Which ingredients of a Firestore recipe the pantry has, compared in canonical
+     * form the way {@link MatchMode#SCAN} compares catalog recipes
+     * @param recipe Recipe as read from the recipes collection
+     * @param pantryItems Pantry items as typed
+     * @return One flag per entry of {@link Recipe#getIngredients()}
+     */
+    public static boolean[] pantryCoverage(Recipe recipe, List<String> pantryItems) {
+        Set<String> pantrySet = new HashSet<>();
+        for (String item : pantryItems) {
+            String normalized = normalizeString(item);
+            if (!normalized.isEmpty()) pantrySet.add(normalized);
+        }
+        List<String> ingredients = canonicalIngredientsOf(recipe);
+        boolean[] covered = new boolean[ingredients.size()];
+        for (int i = 0; i < covered.length; i++) {
+            covered[i] = isPantryMatch(pantrySet, Collections.singletonList(ingredients.get(i)));
+        }
+        return covered;
+    }
+
+    /**
+     * Check if pantry contains all required ingredients for a recipe.
+     * Reference check used by {@link MatchMode#SCAN}
      * @param pantrySet Normalized set of pantry items
      * @param requiredIngredients List of required ingredients
      * @return true if all required ingredients are found in pantry
      */
-    private static boolean isPantryMatch(Set<String> pantrySet, List<String> requiredIngredients) {
+    static boolean isPantryMatch(Set<String> pantrySet, List<String> requiredIngredients) {
         for (String required : requiredIngredients) {
             boolean found = false;
             for (String pantryItem : pantrySet) {
@@ -67,40 +208,13 @@ public class RecipeMapper {
     }
     
     /**
-     * Define all recipe mappings
-     * @return List of recipe mappings
-     */
-    private static List<RecipeMapping> getRecipeMappings() {
-        List<RecipeMapping> mappings = new ArrayList<>();
-        
-        // Recipe 1: Grilled Chicken with Salad
-        mappings.add(new RecipeMapping(
-            "recipe_1",
-            "Grilled Chicken with Salad",
-            "Lunch",
-            "https://i.imgur.com/s5rzogv.jpeg",
-            Arrays.asList("garlic", "lemon juice")
-        ));
-        
-        // Recipe 2: Haleem
-        mappings.add(new RecipeMapping(
-            "recipe_2", 
-            "Haleem",
-            "Dinner",
-            "https://i.imgur.com/wEBHkJT.jpeg",
-            Arrays.asList("cracked wheat", "beef")
-        ));
-        
-        return mappings;
-    }
-    
-    /**
-     * Normalize string for better matching (lowercase, trim, remove extra spaces)
+     * Normalize string for better matching (case folding, whitespace collapsing,
+     * singular form and synonyms) through the shared ingredient canonicalizer
      * @param input Input string to normalize
      * @return Normalized string
      */
-    private static String normalizeString(String input) {
+    static String normalizeString(String input) {
         if (input == null) return "";
-        return input.toLowerCase().trim().replaceAll("\\s+", " ");
+        return IngredientCanonicalizer.shared().canonical(input);
     }
 }
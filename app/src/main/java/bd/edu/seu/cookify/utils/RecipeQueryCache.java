@@ -0,0 +1,145 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of recipe lookups keyed by (category, normalized query).
+ * Values are recipe id lists, so the cache stays small and never holds stale
+ * recipe objects. An empty query caches the category listing itself. Queries that
+ * differ only in case or spacing share one entry. Entries expire after a maximum
+ * age, so a cached category is fetched again eventually even if nothing else
+ * invalidates it. Safe to use from several threads.
+ */
+public class RecipeQueryCache {
+
+    private static class Entry {
+        final List<String> ids;
+        final long storedAt;
+
+        Entry(List<String> ids, long storedAt) {
+            this.ids = ids;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final int capacity;
+    private final long maxAgeMillis;
+    // Milliseconds from a monotonic clock
+    private final LongSupplier clock;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity Entries kept before the least recently used one is evicted
+     * @param maxAgeMillis How long an entry is served after it was stored
+     */
+    public RecipeQueryCache(int capacity, long maxAgeMillis) {
+        this(capacity, maxAgeMillis, () -> System.nanoTime() / 1_000_000);
+    }
+
+    RecipeQueryCache(int capacity, long maxAgeMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > RecipeQueryCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Cached recipe ids for a lookup, counted as a hit or a miss; an expired entry is a miss
+     * @param category Category tab, e.g. "All"
+     * @param query Search text as typed, empty for the whole category
+     * @return Recipe ids in display order, or null when not cached or expired
+     */
+    public synchronized List<String> get(String category, String query) {
+        String key = key(category, query);
+        Entry entry = entries.get(key);
+        if (entry != null && clock.getAsLong() - entry.storedAt >= maxAgeMillis) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.ids;
+    }
+
+    /**
+     * Remember the recipe ids a lookup produced, evicting the least recently used entry when full
+     */
+    public synchronized void put(String category, String query, List<String> ids) {
+        entries.put(key(category, query), new Entry(Collections.unmodifiableList(new ArrayList<>(ids)), clock.getAsLong()));
+    }
+
+    /**
+     * Drop every entry, for when the underlying recipes change
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+    }
+
+    /**
+     * Drop the entries of one category
+     */
+    public synchronized void invalidate(String category) {
+        String prefix = normalize(category) + '\u0000';
+        for (Iterator<String> keys = entries.keySet().iterator(); keys.hasNext(); ) {
+            if (keys.next().startsWith(prefix)) keys.remove();
+        }
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RecipeQueryCache{size=" + entries.size() + ", hits=" + hits + ", misses=" + misses + "}";
+    }
+
+    private static String key(String category, String query) {
+        return normalize(category) + '\u0000' + normalize(query);
+    }
+
+    /**
+     * Query text as cached: folded, trimmed and with inner whitespace collapsed
+     */
+    public static String normalize(String text) {
+        String folded = NameSearchIndex.fold(text).trim();
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) normalized.append(' ');
+            normalized.append(c);
+            space = false;
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,185 @@
+package bd.edu.seu.cookify.utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import bd.edu.seu.cookify.models.RecipeItem;
+
+/**
+ * Local full-text index of the recipes collection, usable offline.
+ * Recipe metadata lives in a plain table and the searchable text (name,
+ * ingredients, instructions) in an FTS4 table sharing its row ids. Queries are
+ * ranked with BM25 while the cursor is read, keeping only the best rows, so
+ * memory stays bounded by the result limit rather than the catalog size.
+ */
+public class RecipeSearchDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "recipe_search.db";
+    private static final int DATABASE_VERSION = 1;
+
+    // Column weights for BM25: name hits count most, instructions least
+    private static final double[] COLUMN_WEIGHTS = {3.0, 1.5, 1.0};
+
+    private static RecipeSearchDatabase instance;
+
+    public static synchronized RecipeSearchDatabase getInstance(Context context) {
+        if (instance == null) instance = new RecipeSearchDatabase(context.getApplicationContext());
+        return instance;
+    }
+
+    private RecipeSearchDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true); // Searches keep running while a sync writes
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE recipes ("
+                + "_id INTEGER PRIMARY KEY, "
+                + "recipe_id TEXT NOT NULL UNIQUE, "
+                + "name TEXT, image_url TEXT, culture TEXT, category TEXT, "
+                + "sync_generation INTEGER NOT NULL)");
+        db.execSQL("CREATE VIRTUAL TABLE recipes_fts USING fts4(name, ingredients, instructions, tokenize=porter)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The index is rebuilt from Firestore, nothing to migrate
+        db.execSQL("DROP TABLE IF EXISTS recipes_fts");
+        db.execSQL("DROP TABLE IF EXISTS recipes");
+        onCreate(db);
+    }
+
+    /**
+     * Insert or replace one recipe. Call inside a transaction when writing many
+     * @param generation Sync generation, rows left on an older one are removed by {@link #removeOlderThan}
+     */
+    public void upsert(String recipeId, String name, String imageUrl, String culture, String category,
+                       List<String> ingredients, List<String> instructions, long generation) {
+        SQLiteDatabase db = getWritableDatabase();
+        ContentValues recipe = new ContentValues();
+        recipe.put("recipe_id", recipeId);
+        recipe.put("name", name);
+        recipe.put("image_url", imageUrl);
+        recipe.put("culture", culture);
+        recipe.put("category", category);
+        recipe.put("sync_generation", generation);
+
+        long rowId = -1;
+        try (Cursor cursor = db.rawQuery("SELECT _id FROM recipes WHERE recipe_id = ?", new String[]{recipeId})) {
+            if (cursor.moveToFirst()) rowId = cursor.getLong(0);
+        }
+        if (rowId >= 0) {
+            db.update("recipes", recipe, "_id = ?", new String[]{String.valueOf(rowId)});
+            db.delete("recipes_fts", "docid = ?", new String[]{String.valueOf(rowId)});
+        } else {
+            rowId = db.insertOrThrow("recipes", null, recipe);
+        }
+
+        ContentValues text = new ContentValues();
+        text.put("docid", rowId);
+        text.put("name", name);
+        text.put("ingredients", join(ingredients));
+        text.put("instructions", join(instructions));
+        db.insertOrThrow("recipes_fts", null, text);
+    }
+
+    /**
+     * Remove recipes not seen by the sync that wrote the given generation
+     */
+    public void removeOlderThan(long generation) {
+        SQLiteDatabase db = getWritableDatabase();
+        String[] args = {String.valueOf(generation)};
+        db.beginTransaction();
+        try {
+            db.execSQL("DELETE FROM recipes_fts WHERE docid IN "
+                    + "(SELECT _id FROM recipes WHERE sync_generation < ?)", args);
+            db.delete("recipes", "sync_generation < ?", args);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Ranked full-text search over name, ingredients and instructions
+     * @param text Search text as typed
+     * @param limit Maximum number of results
+     * @return Best matching recipes first
+     */
+    public List<RecipeItem> search(String text, int limit) {
+        List<RecipeItem> results = new ArrayList<>();
+        String match = FullTextRanker.toMatchQuery(text);
+        if (match.isEmpty() || limit <= 0) return results;
+
+        // Min-heap on score: the root is the weakest of the kept rows
+        PriorityQueue<ScoredRecipe> best = new PriorityQueue<>(limit, (a, b) -> Double.compare(a.score, b.score));
+        String sql = "SELECT r.recipe_id, r.name, r.image_url, r.culture, r.category, matchinfo(recipes_fts, 'pcnalx') "
+                + "FROM recipes_fts JOIN recipes r ON r._id = recipes_fts.docid "
+                + "WHERE recipes_fts MATCH ?";
+        try (Cursor cursor = getReadableDatabase().rawQuery(sql, new String[]{match})) {
+            int[] matchinfo = new int[0];
+            while (cursor.moveToNext()) {
+                matchinfo = readMatchinfo(cursor.getBlob(5), matchinfo);
+                double score = FullTextRanker.bm25(matchinfo, COLUMN_WEIGHTS);
+                if (best.size() == limit && score <= best.peek().score) continue;
+                RecipeItem item = new RecipeItem(cursor.getString(0), cursor.getString(1),
+                        cursor.getString(2), cursor.getString(3), cursor.getString(4));
+                best.add(new ScoredRecipe(item, score));
+                if (best.size() > limit) best.poll();
+            }
+        }
+
+        while (!best.isEmpty()) results.add(best.poll().item);
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Number of recipes in the local index
+     */
+    public long count() {
+        try (Cursor cursor = getReadableDatabase().rawQuery("SELECT COUNT(*) FROM recipes", null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    // matchinfo is an array of native-order 32-bit integers
+    private static int[] readMatchinfo(byte[] blob, int[] reuse) {
+        int count = blob.length / 4;
+        int[] values = reuse.length == count ? reuse : new int[count];
+        ByteBuffer.wrap(blob).order(ByteOrder.nativeOrder()).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static String join(List<String> lines) {
+        if (lines == null) return "";
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            if (line == null) continue;
+            if (text.length() > 0) text.append('\n');
+            text.append(line);
+        }
+        return text.toString();
+    }
+
+    private static class ScoredRecipe {
+        final RecipeItem item;
+        final double score;
+
+        ScoredRecipe(RecipeItem item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+    }
+}
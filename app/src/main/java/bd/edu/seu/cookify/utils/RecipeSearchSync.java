@@ -0,0 +1,145 @@
+package bd.edu.seu.cookify.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copies the recipes collection into {@link RecipeSearchDatabase}.
+ * Documents are read in pages ordered by id and each page is written in one
+ * transaction on a background thread, so the catalog never has to fit in memory.
+ * Recipes deleted from Firestore are removed once a full pass completes.
+ * A screen that reads the whole collection anyway hands its snapshot to
+ * {@link #indexIfStale} instead, so nothing is downloaded twice.
+ */
+public class RecipeSearchSync {
+
+    private static final String TAG = "RecipeSearchSync";
+    private static final String PREFS = "recipe_search";
+    private static final String KEY_LAST_SYNC = "lastSync";
+    // Minimum time between two full passes
+    private static final long SYNC_INTERVAL_MS = 6 * 60 * 60 * 1000L;
+    private static final int PAGE_SIZE = 300;
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Start a full pass in the background unless one ran recently or is running
+     * @param context Any context, the application context is kept
+     */
+    public static void syncIfStale(Context context) {
+        Context appContext = context.getApplicationContext();
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        if (!startPass(prefs)) return;
+
+        long generation = System.currentTimeMillis();
+        fetchPage(RecipeSearchDatabase.getInstance(appContext), prefs, generation, null);
+    }
+
+    /**
+     * Index a read of the whole collection the caller already made, in place of a
+     * paged pass, unless one ran recently or is running
+     * @param context Any context, the application context is kept
+     * @param snap Every document of the recipes collection
+     */
+    public static void indexIfStale(Context context, QuerySnapshot snap) {
+        // A read served from the offline cache may miss recipes, which would then be removed
+        if (snap.getMetadata().isFromCache()) return;
+        Context appContext = context.getApplicationContext();
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        if (!startPass(prefs)) return;
+
+        RecipeSearchDatabase database = RecipeSearchDatabase.getInstance(appContext);
+        long generation = System.currentTimeMillis();
+        writer.execute(() -> {
+            try {
+                writePage(database, snap, generation);
+                finishPass(database, prefs, generation);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to index recipes", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    // Claims the next pass, false if one ran recently or is running
+    private static boolean startPass(SharedPreferences prefs) {
+        if (System.currentTimeMillis() - prefs.getLong(KEY_LAST_SYNC, 0) < SYNC_INTERVAL_MS) return false;
+        return running.compareAndSet(false, true);
+    }
+
+    // Drops the recipes the pass did not see and records it
+    private static void finishPass(RecipeSearchDatabase database, SharedPreferences prefs, long generation) {
+        database.removeOlderThan(generation);
+        prefs.edit().putLong(KEY_LAST_SYNC, System.currentTimeMillis()).apply();
+        Log.d(TAG, "Indexed " + database.count() + " recipes for full-text search");
+    }
+
+    private static void fetchPage(RecipeSearchDatabase database, SharedPreferences prefs,
+                                  long generation, DocumentSnapshot after) {
+        Query query = FirebaseFirestore.getInstance()
+                .collection("recipes")
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (after != null) query = query.startAfter(after);
+
+        query.get()
+                .addOnSuccessListener(snap -> writer.execute(() -> {
+                    try {
+                        writePage(database, snap, generation);
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Failed to index recipes", e);
+                        running.set(false);
+                        return;
+                    }
+                    List<DocumentSnapshot> documents = snap.getDocuments();
+                    if (documents.size() == PAGE_SIZE) {
+                        fetchPage(database, prefs, generation, documents.get(documents.size() - 1));
+                    } else {
+                        finishPass(database, prefs, generation);
+                        running.set(false);
+                    }
+                }))
+                .addOnFailureListener(e -> {
+                    // Keep the previous index; the next screen visit retries
+                    Log.e(TAG, "Failed to fetch recipes page", e);
+                    running.set(false);
+                });
+    }
+
+    private static void writePage(RecipeSearchDatabase database, QuerySnapshot snap, long generation) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (DocumentSnapshot d : snap.getDocuments()) {
+                database.upsert(
+                        d.getId(),
+                        d.getString("name"),
+                        d.getString("imageUrl"),
+                        d.getString("culture"),
+                        d.getString("category"),
+                        (List<String>) d.get("ingredients"),
+                        (List<String>) d.get("instructions"),
+                        generation
+                );
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package bd.edu.seu.cookify.utils;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import bd.edu.seu.cookify.models.RecipeItem;
+
+/**
+ * Recipe name search answered by Firestore instead of a downloaded catalog.
+ * Every recipe stores its name normalized in {@link #FIELD_NAME_LOWER}, and a prefix
+ * is a range query on that field, so only the requested page is transferred.
+ * Filtering by culture as well needs the composite index (culture, nameLower).
+ * The app never writes recipes: whatever creates a recipe document stores
+ * {@link #nameLower} of its name, and existing documents get it from a one-off
+ * admin migration, not from clients.
+ */
+public class RemoteRecipeSearch {
+
+    public static final String FIELD_NAME_LOWER = "nameLower";
+    // Sorts after every character used in names, closing the prefix range
+    private static final String PREFIX_END = "\uf8ff";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final FirebaseFirestore db;
+
+    public RemoteRecipeSearch(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Value stored in {@link #FIELD_NAME_LOWER}: the same normalization as typed queries
+     */
+    public static String nameLower(String name) {
+        return RecipeQueryCache.normalize(name);
+    }
+
+    /**
+     * Count the recipes on the server, to decide between local and server-side search
+     */
+    public Task<Long> countRecipes() {
+        return db.collection("recipes").count().get(AggregateSource.SERVER)
+                .continueWith(task -> task.getResult().getCount());
+    }
+
+    /**
+     * Recipes whose name starts with the text, in name order
+     * @param text Search text as typed, empty for the first recipes by name
+     * @param culture Culture to keep, null or "All" for every culture
+     * @param limit Maximum number of recipes
+     */
+    public Query prefixQuery(String text, String culture, int limit) {
+        String prefix = nameLower(text);
+        Query query = db.collection("recipes");
+        if (culture != null && !culture.trim().isEmpty() && !culture.equalsIgnoreCase("All")) {
+            query = query.whereEqualTo("culture", culture);
+        }
+        return query.orderBy(FIELD_NAME_LOWER)
+                .startAt(prefix)
+                .endAt(prefix + PREFIX_END)
+                .limit(limit);
+    }
+
+    /**
+     * Run {@link #prefixQuery} and wait for it. Must not be called on the main thread
+     * @return Matching recipes in name order
+     */
+    public List<RecipeItem> search(String text, String culture, int limit)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        QuerySnapshot snap = Tasks.await(prefixQuery(text, culture, limit).get(), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        List<RecipeItem> items = new ArrayList<>(snap.size());
+        for (DocumentSnapshot d : snap.getDocuments()) items.add(toItem(d));
+        return items;
+    }
+
+    public static RecipeItem toItem(DocumentSnapshot d) {
+        return new RecipeItem(d.getId(), d.getString("name"), d.getString("imageUrl"),
+                d.getString("culture"), d.getString("category"));
+    }
+}
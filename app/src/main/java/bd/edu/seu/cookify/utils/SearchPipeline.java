@@ -0,0 +1,137 @@
+package bd.edu.seu.cookify.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs search-as-you-type off the main thread.
+ * Keystrokes are debounced on the main thread, the search itself runs on a single
+ * background worker, a query replaced before the worker picks it up is never run,
+ * and a result is delivered only if its query is still the latest one.
+ * @param <R> Search result type
+ */
+public class SearchPipeline<R> {
+
+    // Pause in typing before a query is searched
+    public static final long DEFAULT_DEBOUNCE_MS = 200;
+
+    /**
+     * Computes the result for a query on the background worker
+     */
+    public interface Searcher<R> {
+        R search(String query);
+    }
+
+    /**
+     * Receives the result for the latest query on the main thread
+     */
+    public interface Callback<R> {
+        void onResult(String query, R result);
+    }
+
+    private static class Request {
+        final long generation;
+        final String query;
+
+        Request(long generation, String query) {
+            this.generation = generation;
+            this.query = query;
+        }
+    }
+
+    private final Searcher<R> searcher;
+    private final Callback<R> callback;
+    private final long debounceMs;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bumped for every query; only the latest generation may deliver
+    private final AtomicLong generation = new AtomicLong();
+    // Latest query not picked up by the worker yet
+    private final AtomicReference<Request> pending = new AtomicReference<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Main thread only: the query waiting for the debounce to pass
+    private String debouncedQuery;
+    private final Runnable debounced = () -> submitNow(debouncedQuery);
+
+    public SearchPipeline(Searcher<R> searcher, Callback<R> callback) {
+        this(searcher, callback, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public SearchPipeline(Searcher<R> searcher, Callback<R> callback, long debounceMs) {
+        this.searcher = searcher;
+        this.callback = callback;
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * Search once typing pauses, replacing any query still waiting. Main thread only
+     * @param query Current search text
+     */
+    public void submit(String query) {
+        // Invalidate the result of the previous query right away
+        generation.incrementAndGet();
+        debouncedQuery = query;
+        mainHandler.removeCallbacks(debounced);
+        mainHandler.postDelayed(debounced, debounceMs);
+    }
+
+    /**
+     * Search without waiting, e.g. on the search action or after the data reloads.
+     * Main thread only
+     * @param query Current search text
+     */
+    public void submitNow(String query) {
+        mainHandler.removeCallbacks(debounced);
+        if (worker.isShutdown()) return;
+        long current = generation.incrementAndGet();
+        pending.set(new Request(current, query == null ? "" : query));
+        if (draining.compareAndSet(false, true)) worker.execute(this::drain);
+    }
+
+    /**
+     * Drop the waiting query and any result not delivered yet
+     */
+    public void cancel() {
+        mainHandler.removeCallbacks(debounced);
+        generation.incrementAndGet();
+        pending.set(null);
+    }
+
+    /**
+     * Cancel pending work and stop the worker
+     */
+    public void shutdown() {
+        cancel();
+        worker.shutdownNow();
+    }
+
+    private void drain() {
+        while (true) {
+            Request request;
+            while ((request = pending.getAndSet(null)) != null) {
+                if (request.generation != generation.get()) continue;
+                run(request);
+            }
+            draining.set(false);
+            // A query may have slipped in after the last poll
+            if (pending.get() == null || !draining.compareAndSet(false, true)) return;
+        }
+    }
+
+    private void run(Request request) {
+        R result = searcher.search(request.query);
+        if (request.generation != generation.get()) return;
+
+        mainHandler.post(() -> {
+            if (request.generation == generation.get()) callback.onResult(request.query, result);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import bd.edu.seu.cookify.models.SubstituteItem;
+
+/**
+ * Precomputed "can stand in for" closure over the substitutes collection.
+ * Every {@link SubstituteItem} lists ingredients that can replace its name;
+ * chains are followed, so if yogurt can replace buttermilk and buttermilk can
+ * replace sour milk, yogurt can replace both. Ingredients are keyed by their
+ * canonical id, so a lookup is a single hash probe at match time.
+ */
+public class SubstituteGraph {
+
+    // Canonical id of a substitute -> canonical ids of everything it can replace
+    private final Map<Integer, int[]> replaceable = new HashMap<>();
+
+    public SubstituteGraph(List<SubstituteItem> items) {
+        IngredientCanonicalizer canonicalizer = IngredientCanonicalizer.shared();
+
+        // Direct edges: substitute -> ingredients it is listed under
+        Map<Integer, Set<Integer>> replaces = new HashMap<>();
+        if (items != null) {
+            for (SubstituteItem item : items) {
+                if (item.getName() == null || item.getSubstitutes() == null) continue;
+                int original = canonicalizer.intern(item.getName());
+                for (String substitute : item.getSubstitutes()) {
+                    if (substitute == null) continue;
+                    int id = canonicalizer.intern(substitute);
+                    if (id != original) replaces.computeIfAbsent(id, k -> new HashSet<>()).add(original);
+                }
+            }
+        }
+
+        // Transitive closure by a walk from every substitute
+        for (Integer start : replaces.keySet()) {
+            Set<Integer> reached = new HashSet<>();
+            Deque<Integer> queue = new ArrayDeque<>(replaces.get(start));
+            while (!queue.isEmpty()) {
+                int next = queue.poll();
+                if (next == start || !reached.add(next)) continue;
+                Set<Integer> further = replaces.get(next);
+                if (further != null) queue.addAll(further);
+            }
+            int[] closure = new int[reached.size()];
+            int i = 0;
+            for (int id : reached) closure[i++] = id;
+            replaceable.put(start, closure);
+        }
+    }
+
+    /**
+     * Ingredients that the given ingredient can stand in for
+     * @param canonicalId Canonical id of the ingredient on hand
+     * @return Canonical ids it can replace, empty if none
+     */
+    public int[] replaceableBy(int canonicalId) {
+        int[] ids = replaceable.get(canonicalId);
+        return ids == null ? new int[0] : ids;
+    }
+
+    /**
+     * Every ingredient that can stand in for something
+     */
+    public List<Integer> substitutes() {
+        return new ArrayList<>(replaceable.keySet());
+    }
+}
@@ -0,0 +1,120 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import bd.edu.seu.cookify.models.SubstituteItem;
+
+/**
+ * Two-way word index over the substitutes collection.
+ * Each entry says what can replace its ingredient; the index also answers the
+ * reverse, what an ingredient can replace, by indexing the words of every
+ * substitute as well as the words of every name. Words are kept sorted, so a query
+ * word still being typed matches every word it starts with through two binary
+ * searches, and no substitute list is scanned while searching.
+ * Create a new instance whenever the items change.
+ */
+public class SubstituteLookup {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final List<SubstituteItem> items;
+    // Distinct words of names and substitutes, sorted
+    private final String[] words;
+    // Word id -> positions of the entries using the word in their name, ascending
+    private final int[][] namePostings;
+    // Word id -> positions of the entries using the word in a substitute, ascending
+    private final int[][] substitutePostings;
+
+    public SubstituteLookup(List<SubstituteItem> items) {
+        this.items = new ArrayList<>(items);
+        Map<String, int[]> byName = new HashMap<>();
+        Map<String, int[]> bySubstitute = new HashMap<>();
+        for (int p = 0; p < this.items.size(); p++) {
+            SubstituteItem item = this.items.get(p);
+            for (String word : FuzzyNameSearch.tokenize(NameSearchIndex.fold(item.getName()))) {
+                add(byName, word, p);
+            }
+            if (item.getSubstitutes() == null) continue;
+            for (String substitute : item.getSubstitutes()) {
+                for (String word : FuzzyNameSearch.tokenize(NameSearchIndex.fold(substitute))) {
+                    add(bySubstitute, word, p);
+                }
+            }
+        }
+
+        TreeSet<String> all = new TreeSet<>(byName.keySet());
+        all.addAll(bySubstitute.keySet());
+        words = all.toArray(new String[0]);
+        namePostings = new int[words.length][];
+        substitutePostings = new int[words.length][];
+        for (int w = 0; w < words.length; w++) {
+            namePostings[w] = trim(byName.get(words[w]));
+            substitutePostings[w] = trim(bySubstitute.get(words[w]));
+        }
+    }
+
+    /**
+     * Entries for the query in both directions: first those whose ingredient matches
+     * (what can replace it), then those listing it as a substitute (what it can replace).
+     * Every query word must start a word of the name, or of the substitutes
+     * @param query Search text; the last word may be partly typed
+     * @return Matching entries, each once, in collection order within each group
+     */
+    public List<SubstituteItem> search(String query) {
+        List<SubstituteItem> result = new ArrayList<>();
+        List<String> queryWords = FuzzyNameSearch.tokenize(NameSearchIndex.fold(query));
+        if (queryWords.isEmpty()) return result;
+
+        BitSet named = matching(queryWords, namePostings);
+        BitSet replacing = matching(queryWords, substitutePostings);
+        replacing.andNot(named);
+        for (int p = named.nextSetBit(0); p >= 0; p = named.nextSetBit(p + 1)) result.add(items.get(p));
+        for (int p = replacing.nextSetBit(0); p >= 0; p = replacing.nextSetBit(p + 1)) result.add(items.get(p));
+        return result;
+    }
+
+    // Entries having, for every query word, an indexed word starting with it
+    private BitSet matching(List<String> queryWords, int[][] postings) {
+        BitSet result = null;
+        for (String queryWord : queryWords) {
+            BitSet found = new BitSet(items.size());
+            int from = lowerBound(queryWord);
+            int to = lowerBound(queryWord + Character.MAX_VALUE);
+            for (int w = from; w < to; w++) {
+                for (int p : postings[w]) found.set(p);
+            }
+            if (result == null) result = found;
+            else result.and(found);
+            if (result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    // First word not smaller than the key
+    private int lowerBound(String key) {
+        int position = Arrays.binarySearch(words, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    // Postings are stored as [size, positions...] while building
+    private static void add(Map<String, int[]> postings, String word, int position) {
+        int[] list = postings.get(word);
+        if (list == null) list = new int[4];
+        int size = list[0];
+        if (size > 0 && list[size] == position) return; // Word repeated in one entry
+        if (size + 1 == list.length) list = Arrays.copyOf(list, list.length * 2);
+        list[size + 1] = position;
+        list[0] = size + 1;
+        postings.put(word, list);
+    }
+
+    private static int[] trim(int[] list) {
+        return list == null ? NO_POSITIONS : Arrays.copyOfRange(list, 1, list[0] + 1);
+    }
+}
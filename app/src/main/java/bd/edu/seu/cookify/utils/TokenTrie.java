@@ -0,0 +1,190 @@
+package bd.edu.seu.cookify.utils;
+
+import java.util.Arrays;
+
+/**
+ * Trie over a sorted token dictionary for bounded edit-distance lookups.
+ * A search walks the trie carrying one row of the Levenshtein table per depth,
+ * which simulates a Levenshtein automaton for the query: a branch is abandoned as
+ * soon as every cell of its row exceeds the bound, so only prefixes that can
+ * still lead to a close token are visited.
+ */
+public class TokenTrie {
+
+    /**
+     * Receives every token within the distance bound
+     */
+    public interface Visitor {
+        void accept(int token, int distance);
+    }
+
+    private final String[] tokens;
+    // Node n has children [childStarts[n], childStarts[n + 1]) of (childChars, childNodes)
+    private final int[] childStarts;
+    private final char[] childChars;
+    private final int[] childNodes;
+    // Token ending at each node, or -1
+    private final int[] nodeTokens;
+    // Shortest and longest token length in each node's subtree, to skip subtrees
+    // whose tokens are all too short or too long to be within the bound
+    private final int[] minLengths;
+    private final int[] maxLengths;
+    private final int maxDepth;
+
+    // Distance rows reused between searches, one per trie depth plus the leaf level
+    private int[][] rows = new int[0][];
+
+    public TokenTrie(String[] tokens) {
+        this.tokens = tokens;
+        Integer[] order = new Integer[tokens.length];
+        for (int t = 0; t < tokens.length; t++) order[t] = t;
+        Arrays.sort(order, (a, b) -> tokens[a].compareTo(tokens[b]));
+
+        // Sorted insertion appends each node's children in char order;
+        // nodes are renumbered breadth-first afterwards to flatten the edges
+        int capacity = 16;
+        char[] labels = new char[capacity];
+        int[] lastChild = new int[capacity];
+        int[] firstChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        int[] ending = new int[capacity];
+        Arrays.fill(ending, -1);
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(lastChild, -1);
+        Arrays.fill(nextSibling, -1);
+        int nodeCount = 1;
+        int depth = 0;
+
+        for (int t : order) {
+            String token = tokens[t];
+            depth = Math.max(depth, token.length());
+            int node = 0;
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                int last = lastChild[node];
+                if (last >= 0 && labels[last] == c) {
+                    node = last;
+                    continue;
+                }
+                if (nodeCount == capacity) {
+                    capacity *= 2;
+                    labels = Arrays.copyOf(labels, capacity);
+                    lastChild = grow(lastChild, capacity);
+                    firstChild = grow(firstChild, capacity);
+                    nextSibling = grow(nextSibling, capacity);
+                    ending = grow(ending, capacity);
+                }
+                int child = nodeCount++;
+                labels[child] = c;
+                if (last >= 0) nextSibling[last] = child;
+                else firstChild[node] = child;
+                lastChild[node] = child;
+                node = child;
+            }
+            if (ending[node] < 0) ending[node] = t;
+        }
+        maxDepth = depth;
+
+        // Breadth-first numbering keeps every node's children contiguous
+        int[] queue = new int[nodeCount];
+        int[] renumbered = new int[nodeCount];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int node = queue[head];
+            renumbered[node] = head++;
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) queue[tail++] = child;
+        }
+        childStarts = new int[nodeCount + 1];
+        childChars = new char[nodeCount - 1];
+        childNodes = new int[nodeCount - 1];
+        nodeTokens = new int[nodeCount];
+        int edge = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            int node = queue[n];
+            childStarts[n] = edge;
+            nodeTokens[n] = ending[node];
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                childChars[edge] = labels[child];
+                childNodes[edge] = renumbered[child];
+                edge++;
+            }
+        }
+        childStarts[nodeCount] = edge;
+
+        // Children are numbered after their parents, so one backward pass fills the ranges
+        minLengths = new int[nodeCount];
+        maxLengths = new int[nodeCount];
+        int[] depths = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            for (int e = childStarts[n]; e < childStarts[n + 1]; e++) depths[childNodes[e]] = depths[n] + 1;
+        }
+        for (int n = nodeCount - 1; n >= 0; n--) {
+            minLengths[n] = nodeTokens[n] >= 0 ? depths[n] : Integer.MAX_VALUE;
+            maxLengths[n] = nodeTokens[n] >= 0 ? depths[n] : -1;
+            for (int e = childStarts[n]; e < childStarts[n + 1]; e++) {
+                minLengths[n] = Math.min(minLengths[n], minLengths[childNodes[e]]);
+                maxLengths[n] = Math.max(maxLengths[n], maxLengths[childNodes[e]]);
+            }
+        }
+    }
+
+    /**
+     * Visit every token within maxDistance edits of the query
+     * @param query Token to look up
+     * @param maxDistance Largest Levenshtein distance accepted
+     * @param visitor Receives token ids and their distance, in dictionary order
+     */
+    public synchronized void search(String query, int maxDistance, Visitor visitor) {
+        int columns = query.length() + 2;
+        if (rows.length == 0 || rows[0].length < columns) rows = new int[maxDepth + 2][Math.max(columns, 32)];
+        for (int j = 0; j <= query.length(); j++) rows[0][j] = Math.min(j, maxDistance + 1);
+        if (nodeTokens[0] >= 0 && query.length() <= maxDistance) visitor.accept(nodeTokens[0], query.length());
+        walk(0, 1, query, maxDistance, visitor);
+    }
+
+    private void walk(int node, int depth, String query, int maxDistance, Visitor visitor) {
+        int[] previous = rows[depth - 1];
+        int[] current = rows[depth];
+        int length = query.length();
+        // Only cells within maxDistance of the diagonal can stay under the bound
+        int from = Math.max(1, depth - maxDistance);
+        int to = Math.min(length, depth + maxDistance);
+        int outside = maxDistance + 1;
+        for (int e = childStarts[node]; e < childStarts[node + 1]; e++) {
+            int child = childNodes[e];
+            if (maxLengths[child] < length - maxDistance || minLengths[child] > length + maxDistance) continue;
+
+            char c = childChars[e];
+            current[0] = depth;
+            current[from - 1] = from == 1 ? depth : outside;
+            int best = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = query.charAt(j - 1) == c ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                best = Math.min(best, current[j]);
+            }
+            if (to < length) current[to + 1] = outside;
+            if (best > maxDistance) continue; // No token below this prefix is close enough
+
+            int token = nodeTokens[child];
+            if (token >= 0 && to == length && current[length] <= maxDistance) visitor.accept(token, current[length]);
+            walk(child, depth + 1, query, maxDistance, visitor);
+        }
+    }
+
+    public String tokenAt(int token) {
+        return tokens[token];
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        int length = array.length;
+        int[] grown = Arrays.copyOf(array, capacity);
+        Arrays.fill(grown, length, capacity, -1);
+        return grown;
+    }
+}
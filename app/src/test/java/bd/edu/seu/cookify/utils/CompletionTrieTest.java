@@ -0,0 +1,72 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks cached top-K completions against ranking every matching text.
+ */
+public class CompletionTrieTest {
+
+    private static final String[] WORDS = {
+            "chicken", "chickpea", "chili", "butter", "beef", "biryani", "bread", "rice", "ricotta", "egg"
+    };
+
+    @Test
+    public void complete_ranksByWeightAndMatchesWordStarts() {
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("Butter Chicken", 5);
+        weights.put("Chicken Biryani", 9);
+        weights.put("chickpea curry", 2);
+        weights.put("CHICKEN BIRYANI", 1);
+        weights.put("Beef Chili", 3);
+        weights.put("  ", 4);
+        CompletionTrie trie = new CompletionTrie(weights, 2);
+
+        assertEquals(4, trie.size());
+        assertEquals(Arrays.asList("Chicken Biryani", "Butter Chicken"), trie.complete("chick"));
+        assertEquals(Arrays.asList("chickpea curry"), trie.complete(" ChickP"));
+        assertEquals(Arrays.asList("Beef Chili"), trie.complete("chil"));
+        assertEquals(Arrays.asList("Chicken Biryani", "Butter Chicken"), trie.complete("b"));
+        assertEquals(Arrays.asList("Beef Chili"), trie.complete("beef c"));
+        assertTrue(trie.complete("icken").isEmpty());
+        assertTrue(trie.complete("").isEmpty());
+    }
+
+    @Test
+    public void complete_matchesFullRankingOnRandomTexts() {
+        Random random = new Random(11);
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextBoolean() ? "" : " " + random.nextInt(100));
+            weights.put(text, random.nextInt(50));
+        }
+        int topK = 5;
+        CompletionTrie trie = new CompletionTrie(weights, topK);
+
+        for (String prefix : new String[]{"c", "chi", "chick", "chickpea b", "rice 4", "b", "egg egg", "x", "9"}) {
+            List<String> matching = new ArrayList<>();
+            for (String text : weights.keySet()) {
+                String key = text.toLowerCase(Locale.ROOT);
+                if (key.startsWith(prefix) || key.contains(" " + prefix)) matching.add(text);
+            }
+            matching.sort((a, b) -> {
+                int byWeight = Integer.compare(weights.get(b), weights.get(a));
+                if (byWeight != 0) return byWeight;
+                int byLength = Integer.compare(a.length(), b.length());
+                return byLength != 0 ? byLength : a.compareToIgnoreCase(b);
+            });
+            assertEquals(prefix, matching.subList(0, Math.min(topK, matching.size())), trie.complete(prefix));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks facet bitmaps against filtering every item by its values.
+ */
+public class FacetIndexTest {
+
+    private static final String[] CULTURES = {"Bangladeshi", "Indian", "italian", "Thai", null};
+    private static final String[] CATEGORIES = {"Breakfast", "Lunch", "Dinner", "Dessert", ""};
+
+    @Test
+    public void select_composesFacetsWithSearchResults() {
+        Random random = new Random(5);
+        List<String[]> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) items.add(randomItem(random));
+        FacetIndex<String[]> facets = new FacetIndex<>(items);
+        facets.addFacet("culture", item -> item[0]);
+        facets.addFacet("category", item -> item[1]);
+
+        assertEquals(Arrays.asList("Breakfast", "Dessert", "Dinner", "Lunch"), facets.values("category"));
+        assertEquals(items, facets.filtered());
+
+        // A ranked search result with items the index has never seen
+        List<String[]> ranked = new ArrayList<>(items.subList(0, 500));
+        for (int i = 0; i < 50; i++) ranked.add(randomItem(random));
+        Collections.shuffle(ranked, random);
+
+        String[] cultureChoices = {"Indian", "ITALIAN", "All", "Thai", null, "Mexican"};
+        String[] categoryChoices = {"Lunch", "All", "dessert", null};
+        for (String culture : cultureChoices) {
+            facets.select("culture", culture);
+            for (String category : categoryChoices) {
+                facets.select("category", category);
+                assertEquals(culture + "/" + category, expected(items, culture, category), facets.filtered());
+                assertEquals(culture + "/" + category, expected(ranked, culture, category), facets.filter(ranked));
+            }
+        }
+    }
+
+    private static List<String[]> expected(List<String[]> items, String culture, String category) {
+        List<String[]> result = new ArrayList<>();
+        for (String[] item : items) {
+            if (matches(item[0], culture) && matches(item[1], category)) result.add(item);
+        }
+        return result;
+    }
+
+    private static boolean matches(String value, String selected) {
+        if (selected == null || selected.equalsIgnoreCase("All")) return true;
+        return value != null && value.equalsIgnoreCase(selected);
+    }
+
+    private static String[] randomItem(Random random) {
+        return new String[]{CULTURES[random.nextInt(CULTURES.length)], CATEGORIES[random.nextInt(CATEGORIES.length)]};
+    }
+}
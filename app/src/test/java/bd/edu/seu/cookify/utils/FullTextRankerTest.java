@@ -0,0 +1,58 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks MATCH query building and BM25 scores computed from matchinfo values.
+ */
+public class FullTextRankerTest {
+
+    private static final double[] WEIGHTS = {3.0, 1.5, 1.0};
+
+    @Test
+    public void toMatchQuery_quotesWordsAndPrefixesTheLast() {
+        assertEquals("", FullTextRanker.toMatchQuery(null));
+        assertEquals("", FullTextRanker.toMatchQuery("  -, "));
+        assertEquals("\"chick*\"", FullTextRanker.toMatchQuery("Chick"));
+        assertEquals("\"beef\" \"and\" \"onion*\"", FullTextRanker.toMatchQuery(" Beef AND onion, "));
+        assertEquals("\"near\" \"rice*\"", FullTextRanker.toMatchQuery("near\"rice*"));
+    }
+
+    @Test
+    public void bm25_prefersRareWordsHeavierColumnsAndShorterText() {
+        // One phrase, three columns, 100 rows, average lengths 4 / 20 / 60
+        int[] inName = matchinfo(new int[]{3, 20, 60}, new int[]{1, 0, 0}, 10);
+        int[] inInstructions = matchinfo(new int[]{3, 20, 60}, new int[]{0, 0, 1}, 10);
+        assertTrue(FullTextRanker.bm25(inName, WEIGHTS) > FullTextRanker.bm25(inInstructions, WEIGHTS));
+
+        int[] rare = matchinfo(new int[]{4, 20, 60}, new int[]{0, 1, 0}, 2);
+        int[] common = matchinfo(new int[]{4, 20, 60}, new int[]{0, 1, 0}, 80);
+        assertTrue(FullTextRanker.bm25(rare, WEIGHTS) > FullTextRanker.bm25(common, WEIGHTS));
+
+        int[] shortList = matchinfo(new int[]{4, 8, 60}, new int[]{0, 1, 0}, 10);
+        int[] longList = matchinfo(new int[]{4, 60, 60}, new int[]{0, 1, 0}, 10);
+        assertTrue(FullTextRanker.bm25(shortList, WEIGHTS) > FullTextRanker.bm25(longList, WEIGHTS));
+
+        int[] missing = matchinfo(new int[]{4, 20, 60}, new int[]{0, 0, 0}, 10);
+        assertEquals(0, FullTextRanker.bm25(missing, WEIGHTS), 0);
+    }
+
+    // Layout of matchinfo 'pcnalx' for a single phrase over three columns
+    private static int[] matchinfo(int[] lengths, int[] hits, int documents) {
+        int[] averages = {4, 20, 60};
+        int[] values = new int[3 + 3 + 3 + 9];
+        values[0] = 1;
+        values[1] = 3;
+        values[2] = 100;
+        for (int c = 0; c < 3; c++) {
+            values[3 + c] = averages[c];
+            values[6 + c] = lengths[c];
+            values[9 + 3 * c] = hits[c];
+            values[9 + 3 * c + 1] = hits[c];
+            values[9 + 3 * c + 2] = documents;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,85 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the canonical form: plurals, irregular plurals, synonyms and folding,
+ * and that only interning adds to the table.
+ */
+public class IngredientCanonicalizerTest {
+
+    @Test
+    public void canonical_singularizesTheLastWord() {
+        IngredientCanonicalizer canonicalizer = new IngredientCanonicalizer();
+
+        assertEquals("tomato", canonicalizer.canonical("tomatoes"));
+        assertEquals("berry", canonicalizer.canonical("berries"));
+        assertEquals("peach", canonicalizer.canonical("peaches"));
+        assertEquals("box", canonicalizer.canonical("boxes"));
+        assertEquals("egg", canonicalizer.canonical("eggs"));
+        assertEquals("pea", canonicalizer.canonical("peas"));
+        assertEquals("cherry tomato", canonicalizer.canonical("cherry tomatoes"));
+        // Already singular, or too short to tell
+        assertEquals("glass", canonicalizer.canonical("glass"));
+        assertEquals("gas", canonicalizer.canonical("gas"));
+        assertEquals("molasses", canonicalizer.canonical("molasses"));
+        assertEquals("asparagus", canonicalizer.canonical("asparagus"));
+    }
+
+    @Test
+    public void canonical_usesTheExceptionsForIrregularPlurals() {
+        IngredientCanonicalizer canonicalizer = new IngredientCanonicalizer();
+
+        assertEquals("cookie", canonicalizer.canonical("cookies"));
+        assertEquals("pie", canonicalizer.canonical("pies"));
+        assertEquals("brownie", canonicalizer.canonical("Brownies"));
+        assertEquals("apple pie", canonicalizer.canonical("apple pies"));
+        assertEquals("bay leaf", canonicalizer.canonical("bay leaves"));
+        assertEquals("loaf", canonicalizer.canonical("loaves"));
+        // The singular stays as it is
+        assertEquals("cookie", canonicalizer.canonical("cookie"));
+        assertEquals("leaf", canonicalizer.canonical("leaf"));
+    }
+
+    @Test
+    public void canonical_foldsCaseAndWhitespace() {
+        IngredientCanonicalizer canonicalizer = new IngredientCanonicalizer();
+
+        assertEquals("cherry tomato", canonicalizer.canonical("  Cherry \t TOMATOES "));
+        assertEquals("", canonicalizer.canonical("   "));
+        assertEquals("", canonicalizer.canonical(null));
+    }
+
+    @Test
+    public void intern_sharesIdsAcrossSpellingsAndSynonyms() {
+        IngredientCanonicalizer canonicalizer = new IngredientCanonicalizer();
+
+        int tomato = canonicalizer.intern("Cherry  Tomatoes");
+        assertEquals(tomato, canonicalizer.intern("cherry tomato"));
+        assertEquals("cherry tomato", canonicalizer.nameOf(tomato));
+
+        int coriander = canonicalizer.intern("coriander");
+        assertEquals(coriander, canonicalizer.intern("Cilantro"));
+        assertEquals(coriander, canonicalizer.intern("cilantro"));
+        assertEquals(canonicalizer.intern("green onion"), canonicalizer.intern("Scallions"));
+        assertEquals("coriander", canonicalizer.canonical("cilantro"));
+        assertSame(canonicalizer.nameOf(tomato), canonicalizer.canonical("CHERRY TOMATOES"));
+    }
+
+    @Test
+    public void findAndCanonical_neverAddToTheTable() {
+        IngredientCanonicalizer canonicalizer = new IngredientCanonicalizer();
+        int size = canonicalizer.size();
+
+        assertEquals(-1, canonicalizer.find("dragon fruits"));
+        assertEquals("dragon fruit", canonicalizer.canonical("Dragon Fruits"));
+        assertEquals(size, canonicalizer.size());
+
+        int id = canonicalizer.intern("dragon fruit");
+        assertEquals(size + 1, canonicalizer.size());
+        assertEquals(id, canonicalizer.find("Dragon  Fruits"));
+        assertEquals(canonicalizer.intern("coriander"), canonicalizer.find("cilantro"));
+    }
+}
@@ -0,0 +1,93 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Timings for the matching and search structures on large inputs. Not part of the
+ * default test run; remove the @Ignore locally to print the numbers. Correctness is
+ * checked by RecipeIndexTest and NameSearchIndexTest.
+ */
+@Ignore("Benchmark, run on demand")
+public class MatchingBenchmark {
+
+    @Test
+    public void termMatcher_versusNaiveContains() {
+        Random random = new Random(3);
+        String[] terms = RecipeIndexTest.randomTerms(random, 4000);
+        IngredientTermMatcher matcher = new IngredientTermMatcher(terms);
+        int[] out = new int[terms.length];
+
+        String[] items = new String[2000];
+        for (int i = 0; i < items.length; i++) {
+            String term = terms[random.nextInt(terms.length)];
+            items[i] = i % 2 == 0 ? term : "fresh " + term + " " + terms[random.nextInt(terms.length)];
+        }
+
+        long naiveNanos = 0, automatonNanos = 0;
+        int found = 0;
+        for (String item : items) {
+            long start = System.nanoTime();
+            for (String term : terms) {
+                if (item.contains(term) || term.contains(item)) found++;
+            }
+            naiveNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            found -= matcher.coveredTerms(item, out);
+            automatonNanos += System.nanoTime() - start;
+        }
+        System.out.println("Two-way contains over " + terms.length + " terms: naive "
+                + naiveNanos / items.length + " ns/item, automaton " + automatonNanos / items.length
+                + " ns/item (difference " + found + ")");
+    }
+
+    @Test
+    public void parallelMode_scalingCurve() {
+        Random random = new Random(5);
+        RecipeIndex index = new RecipeIndex(RecipeIndexTest.randomCatalog(random, 200_000));
+        List<Set<String>> pantries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) pantries.add(RecipeIndexTest.randomPantry(random));
+
+        // From one worker up to one per core
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores) : cores + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (Set<String> pantry : pantries) index.findMatchesInParallel(pantry, pool); // Warm-up
+                long start = System.nanoTime();
+                for (Set<String> pantry : pantries) index.findMatchesInParallel(pantry, pool);
+                long micros = (System.nanoTime() - start) / 1_000 / pantries.size();
+                System.out.println("Parallel match over " + index.size() + " recipes, " + threads
+                        + " thread(s): " + micros + " us/query");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void fuzzySearch_largeVocabulary() {
+        Random random = new Random(9);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            names.add(NameSearchIndexTest.randomWord(random, 5 + random.nextInt(6)) + " "
+                    + NameSearchIndexTest.randomWord(random, 4));
+        }
+        FuzzyNameSearch<String> search = new FuzzyNameSearch<>(new NameSearchIndex<>(names, Function.identity()));
+        List<String> queries = NameSearchIndexTest.typoQueries(random, names, 200);
+
+        for (String query : queries) search.search(query); // Warm up
+        long start = System.nanoTime();
+        for (String query : queries) search.search(query);
+        long perQuery = (System.nanoTime() - start) / queries.size();
+        System.out.println("Fuzzy search over " + names.size() + " names: " + perQuery / 1000 + " us/query");
+    }
+}
@@ -0,0 +1,157 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the gram index against a plain lowercase contains scan.
+ */
+public class NameSearchIndexTest {
+
+    private static final String[] WORDS = {
+            "Chicken", "Biryani", "Haleem", "beef", "Curry", "Kacchi", "Tikka", "masala", "Pasta", "soup",
+            "Chick", "Ice", "Cream", "Ramen", "tacos", "Çorba", "Spätzle"
+    };
+
+    @Test
+    public void search_matchesLowercaseContains() {
+        Random random = new Random(3);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) names.add(i % 97 == 0 ? null : randomName(random));
+        NameSearchIndex<String> index = new NameSearchIndex<>(names, Function.identity());
+
+        List<String> queries = new ArrayList<>(Arrays.asList("", "c", "CH", "chi", "chic", "ken bir", "zzz", "Ç", "ätz"));
+        for (int i = 0; i < 200; i++) {
+            String name = randomName(random);
+            int start = random.nextInt(name.length());
+            queries.add(name.substring(start, start + 1 + random.nextInt(name.length() - start)));
+        }
+
+        for (String query : queries) {
+            String q = query.toLowerCase(Locale.ROOT);
+            List<String> expected = new ArrayList<>();
+            for (String name : names) {
+                if ((name == null ? "" : name.toLowerCase(Locale.ROOT)).contains(q)) expected.add(name);
+            }
+            assertEquals(query, expected, index.search(query));
+        }
+    }
+
+    @Test
+    public void incrementalSearch_matchesIndexWhileTypingAndDeleting() {
+        Random random = new Random(5);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) names.add(randomName(random));
+        NameSearchIndex<String> index = new NameSearchIndex<>(names, Function.identity());
+        IncrementalNameSearch<String> search = new IncrementalNameSearch<>(index);
+
+        StringBuilder typed = new StringBuilder();
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            if (action < 6) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                typed.append(word.charAt(random.nextInt(word.length())));
+            } else if (action < 9 && typed.length() > 0) {
+                typed.setLength(typed.length() - 1);
+            } else {
+                // Replace the whole query, e.g. after select-all and paste
+                typed.setLength(0);
+                typed.append(randomName(random), 0, 1 + random.nextInt(3));
+            }
+            String query = typed.toString();
+            assertEquals(query, index.search(query), search.search(query));
+        }
+    }
+
+    @Test
+    public void fuzzySearch_ranksExactPrefixSubstringThenTypos() {
+        List<String> names = Arrays.asList("Beef Biryani", "Haleem", "Chicken Biryani", "Biryani",
+                "Kacchi Biryani Special", "Mutton Haleem", "Chicken Tikka", "Tikka Masala");
+        FuzzyNameSearch<String> search = new FuzzyNameSearch<>(new NameSearchIndex<>(names, Function.identity()));
+
+        assertEquals(Arrays.asList("Biryani", "Beef Biryani", "Chicken Biryani", "Kacchi Biryani Special"),
+                search.search("biryani"));
+        assertEquals(Arrays.asList("Tikka Masala", "Chicken Tikka"), search.search("tikka"));
+        // Typos only reach the fuzzy tier
+        assertEquals(Arrays.asList("Beef Biryani", "Chicken Biryani", "Biryani", "Kacchi Biryani Special"),
+                search.search("biriyani"));
+        assertEquals(Arrays.asList("Haleem", "Mutton Haleem"), search.search("haleam"));
+        assertEquals(Arrays.asList("Chicken Biryani"), search.search("chiken biriyani"));
+        // Short words must match as typed
+        assertEquals(new ArrayList<String>(), search.search("tka"));
+        assertEquals(names, search.search(""));
+    }
+
+    @Test
+    public void fuzzySearch_matchesBruteForceOnLargeVocabulary() {
+        Random random = new Random(9);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) names.add(randomWord(random, 5 + random.nextInt(6)) + " " + randomWord(random, 4));
+        FuzzyNameSearch<String> search = new FuzzyNameSearch<>(new NameSearchIndex<>(names, Function.identity()));
+
+        // Brute force: any name containing the query or with a word within one typo,
+        // widening to two typos for long words when nothing is within one
+        for (String query : typoQueries(random, names, 20)) {
+            Set<String> expected = new HashSet<>();
+            for (int budget = 1; budget <= (query.length() >= 8 ? 2 : 1) && expected.isEmpty(); budget++) {
+                for (String name : names) {
+                    for (String word : name.split(" ")) {
+                        if (levenshtein(query, word) <= budget) expected.add(name);
+                    }
+                }
+            }
+            for (String name : names) {
+                if (name.contains(query)) expected.add(name);
+            }
+            assertEquals(query, expected, new HashSet<>(search.search(query)));
+        }
+    }
+
+    // First words of random names, each with one letter replaced
+    static List<String> typoQueries(Random random, List<String> names, int count) {
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String word = names.get(random.nextInt(names.size())).split(" ")[0];
+            char[] typo = word.toCharArray();
+            typo[random.nextInt(typo.length)] = (char) ('a' + random.nextInt(26));
+            queries.add(new String(typo));
+        }
+        return queries;
+    }
+
+    static String randomWord(Random random, int length) {
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) word[i] = (char) ('a' + random.nextInt(26));
+        return new String(word);
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        int extra = random.nextInt(3);
+        for (int i = 0; i < extra; i++) name.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        return name.toString();
+    }
+}
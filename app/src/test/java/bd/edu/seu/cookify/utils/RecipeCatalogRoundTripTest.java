@@ -0,0 +1,86 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import bd.edu.seu.cookify.catalog.RecipeCatalogWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes catalogs with the build's writer and reads them back with BinaryRecipeCatalog.
+ */
+public class RecipeCatalogRoundTripTest {
+
+    private static final String HEADER = "id,name,category,imageUrl,ingredients";
+
+    @Test
+    public void writtenCatalog_readsBackEveryField() throws IOException {
+        RecipeCatalog catalog = roundTrip(Arrays.asList(
+                HEADER,
+                "r1,\"Chicken, Grilled\",Lunch,https://example.com/a.jpg,Garlic | lemon juice",
+                "",
+                "r2,\"Mum's \"\"Best\"\" Pie\",Dessert,https://example.com/b.jpg,Apples|SUGAR|garlic",
+                "r3,Crème brûlée,Dessert,,crème fraîche",
+                "r4,Water,Drink,https://example.com/c.jpg,"
+        ));
+
+        assertEquals(4, catalog.size());
+        assertEquals("r1", catalog.getId(0));
+        assertEquals("Chicken, Grilled", catalog.getName(0));
+        assertEquals("Lunch", catalog.getCategory(0));
+        assertEquals("https://example.com/a.jpg", catalog.getImageUrl(0));
+        assertEquals("Mum's \"Best\" Pie", catalog.getName(1));
+        assertEquals("Crème brûlée", catalog.getName(2));
+        assertEquals("", catalog.getImageUrl(2));
+        assertEquals(0, catalog.getIngredientCount(3));
+
+        assertEquals(Arrays.asList("garlic", "lemon juice"), ingredientsOf(catalog, 0));
+        // Terms are lower-cased and shared between recipes
+        assertEquals(Arrays.asList("apples", "sugar", "garlic"), ingredientsOf(catalog, 1));
+        assertEquals(catalog.getIngredient(0, 0), catalog.getIngredient(1, 2));
+        assertEquals(Arrays.asList("crème fraîche"), ingredientsOf(catalog, 2));
+        assertEquals(5, catalog.getTermCount());
+    }
+
+    @Test
+    public void packagedCsv_readsBackAsWritten() throws IOException {
+        File csv = new File("src/main/catalog/recipe_mappings.csv");
+        List<String> lines = Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8);
+        RecipeCatalog catalog = roundTrip(lines);
+
+        int rows = 0;
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            assertEquals(line.substring(0, line.indexOf(',')), catalog.getId(rows));
+            rows++;
+        }
+        assertEquals(rows, catalog.size());
+        assertTrue(catalog.size() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedRow_isRejected() throws IOException {
+        roundTrip(Arrays.asList(HEADER, "r1,Only,three"));
+    }
+
+    private static RecipeCatalog roundTrip(List<String> lines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecipeCatalogWriter.write(lines, out);
+        return new BinaryRecipeCatalog(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private static List<String> ingredientsOf(RecipeCatalog catalog, int position) {
+        String[] terms = new String[catalog.getIngredientCount(position)];
+        for (int k = 0; k < terms.length; k++) terms[k] = catalog.getTerm(catalog.getIngredient(position, k));
+        return Arrays.asList(terms);
+    }
+}
@@ -0,0 +1,298 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import bd.edu.seu.cookify.models.Recipe;
+import bd.edu.seu.cookify.models.RecipeMapping;
+import bd.edu.seu.cookify.models.RecipeSuggestion;
+import bd.edu.seu.cookify.models.SubstituteItem;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the indexed matching strategies against the reference isPantryMatch scan.
+ */
+public class RecipeIndexTest {
+
+    private static final String[] VOCABULARY = {
+            "garlic", "lemon juice", "lemon", "beef", "cracked wheat", "chicken", "chicken breast",
+            "salt", "rice", "onion", "green onion", "egg", "milk", "butter", "flour", "sugar"
+    };
+
+    private static final String[] PANTRY_WORDS = {
+            "garlic", "lemon", "chicken breast", "fresh garlic", "beef", "wheat", "rice",
+            "salt", "onion", "egg", "milk", "butter", "chick", "sugar", "flour"
+    };
+
+    @Test
+    public void indexedModes_matchReferenceScan() {
+        Random random = new Random(42);
+        RecipeIndex index = new RecipeIndex(randomCatalog(random, 5000));
+
+        for (int trial = 0; trial < 300; trial++) {
+            Set<String> pantry = randomPantry(random);
+            List<String> expected = ids(index.findMatches(pantry, RecipeMapper.MatchMode.SCAN));
+            assertEquals(pantry.toString(), expected, ids(index.findMatches(pantry, RecipeMapper.MatchMode.INDEX)));
+            assertEquals(pantry.toString(), expected, ids(index.findMatches(pantry, RecipeMapper.MatchMode.BITSET)));
+        }
+    }
+
+    @Test
+    public void pantryAsTyped_matchesNormalizedPantryWithOwnedRecipes() {
+        List<RecipeMapping> mappings = new ArrayList<>();
+        mappings.add(new RecipeMapping("lemonade", "Lemonade", "Drink", "", Arrays.asList("lemon", "sugar")));
+        mappings.add(new RecipeMapping("soup", "Soup", "Dinner", "", Arrays.asList("onion", "garlic")));
+        mappings.add(new RecipeMapping("steak", "Steak", "Dinner", "", Arrays.asList("beef")));
+        RecipeIndex index = new RecipeIndex(mappings);
+
+        List<String> typed = Arrays.asList(" Lemons", "SUGAR", "onions ", "garlic", "Garlic");
+        Set<String> normalized = new HashSet<>(Arrays.asList("lemon", "sugar", "onion", "garlic"));
+        List<Recipe> first = index.findMatchesForPantry(typed, RecipeMapper.MatchMode.BITSET);
+        assertEquals(Arrays.asList("lemonade", "soup"), ids(first));
+        assertEquals(ids(index.findMatches(normalized, RecipeMapper.MatchMode.BITSET)), ids(first));
+        assertEquals(2, index.findTopSuggestionsForPantry(typed, 2).size());
+
+        // Every call hands out its own recipes, safe to pass to another thread
+        assertNotSame(first.get(0), index.findMatchesForPantry(typed, RecipeMapper.MatchMode.BITSET).get(0));
+    }
+
+    @Test
+    public void pantryCoverage_comparesFirestoreIngredientsCanonically() {
+        Recipe recipe = new Recipe("Salsa", "Lunch", "",
+                Arrays.asList("Cherry Tomatoes", "Cilantro", "2 Limes", "salt"));
+
+        assertEquals(Arrays.asList("cherry tomato", "coriander", "2 lime", "salt"),
+                RecipeMapper.canonicalIngredientsOf(recipe));
+        boolean[] covered = RecipeMapper.pantryCoverage(recipe, Arrays.asList("tomatoes", "coriander", "  "));
+        assertTrue(covered[0]);
+        assertTrue(covered[1]);
+        assertFalse(covered[2]);
+        assertFalse(covered[3]);
+        assertEquals(0, RecipeMapper.pantryCoverage(new Recipe("Empty", "Lunch", ""), Arrays.asList("salt")).length);
+    }
+
+    @Test
+    public void bitsetMode_handlesVocabularyWiderThanOneWord() {
+        List<RecipeMapping> mappings = new ArrayList<>();
+        List<String> wide = new ArrayList<>();
+        for (int i = 0; i < 150; i++) wide.add("spice" + (char) ('a' + i % 26) + (char) ('a' + i / 26));
+        mappings.add(new RecipeMapping("wide", "Wide", "Dinner", "", wide));
+        mappings.add(new RecipeMapping("single", "Single", "Dinner", "", Arrays.asList("spiceaa")));
+        RecipeIndex index = new RecipeIndex(mappings);
+
+        Set<String> pantry = new HashSet<>(wide);
+        assertEquals(Arrays.asList("wide", "single"), ids(index.findMatches(pantry, RecipeMapper.MatchMode.BITSET)));
+
+        pantry.remove("spiceze");
+        assertEquals(ids(index.findMatches(pantry, RecipeMapper.MatchMode.SCAN)),
+                ids(index.findMatches(pantry, RecipeMapper.MatchMode.BITSET)));
+    }
+
+    @Test
+    public void topSuggestions_matchFullSortOfCoverage() {
+        Random random = new Random(7);
+        List<RecipeMapping> mappings = randomCatalog(random, 3000);
+        RecipeIndex index = new RecipeIndex(mappings);
+
+        for (int trial = 0; trial < 100; trial++) {
+            Set<String> pantry = randomPantry(random);
+            List<RecipeSuggestion> top = index.findTopSuggestions(pantry, 25);
+
+            // Brute force: score every recipe and sort the whole catalog
+            List<int[]> scored = new ArrayList<>();
+            for (int r = 0; r < mappings.size(); r++) {
+                Set<String> required = new HashSet<>(mappings.get(r).getRequiredIngredients());
+                int matched = 0;
+                for (String ingredient : required) {
+                    if (RecipeMapper.isPantryMatch(pantry, Arrays.asList(ingredient))) matched++;
+                }
+                if (matched > 0) scored.add(new int[]{r, matched, required.size()});
+            }
+            scored.sort((a, b) -> {
+                if (a[2] - a[1] != b[2] - b[1]) return Integer.compare(a[2] - a[1], b[2] - b[1]);
+                int coverage = Long.compare((long) b[1] * a[2], (long) a[1] * b[2]);
+                if (coverage != 0) return coverage;
+                if (a[1] != b[1]) return Integer.compare(b[1], a[1]);
+                return Integer.compare(a[0], b[0]);
+            });
+
+            assertEquals(Math.min(25, scored.size()), top.size());
+            for (int i = 0; i < top.size(); i++) {
+                int[] expected = scored.get(i);
+                RecipeSuggestion suggestion = top.get(i);
+                assertEquals(mappings.get(expected[0]).getId(), suggestion.getRecipe().getId());
+                assertEquals(expected[2] - expected[1], suggestion.getMissingIngredients().size());
+            }
+        }
+    }
+
+    @Test
+    public void incrementalMatcher_tracksBatchResultsAcrossEdits() {
+        Random random = new Random(11);
+        RecipeIndex index = new RecipeIndex(randomCatalog(random, 2000));
+        IncrementalRecipeMatcher matcher = new IncrementalRecipeMatcher(index);
+        List<String> pantry = new ArrayList<>();
+
+        for (int step = 0; step < 400; step++) {
+            if (pantry.isEmpty() || random.nextInt(3) > 0) {
+                String item = PANTRY_WORDS[random.nextInt(PANTRY_WORDS.length)];
+                pantry.add(item);
+                matcher.add(item);
+            } else {
+                String item = pantry.remove(random.nextInt(pantry.size()));
+                matcher.remove(item);
+            }
+
+            Set<String> pantrySet = new HashSet<>(pantry);
+            List<String> expected = pantry.isEmpty()
+                    ? new ArrayList<>()
+                    : ids(index.findMatches(pantrySet, RecipeMapper.MatchMode.SCAN));
+            assertEquals(expected, ids(matcher.getMatches()));
+
+            List<String> expectedTop = new ArrayList<>();
+            if (!pantry.isEmpty()) {
+                for (RecipeSuggestion s : index.findTopSuggestions(pantrySet, 10)) expectedTop.add(s.getRecipe().getId());
+            }
+            List<String> actualTop = new ArrayList<>();
+            for (RecipeSuggestion s : matcher.getTopSuggestions(10)) actualTop.add(s.getRecipe().getId());
+            assertEquals(expectedTop, actualTop);
+        }
+    }
+
+    @Test
+    public void substitutes_satisfyIngredientsThroughChains() {
+        List<RecipeMapping> mappings = new ArrayList<>();
+        mappings.add(new RecipeMapping("pancake", "Pancake", "Breakfast", "", Arrays.asList("Buttermilk", "flour")));
+        mappings.add(new RecipeMapping("scone", "Scone", "Breakfast", "", Arrays.asList("sour milk")));
+        mappings.add(new RecipeMapping("raita", "Raita", "Lunch", "", Arrays.asList("yogurt")));
+        mappings.add(new RecipeMapping("dip", "Dip", "Lunch", "", Arrays.asList("sour cream")));
+        RecipeIndex index = new RecipeIndex(mappings);
+
+        IncrementalRecipeMatcher matcher = new IncrementalRecipeMatcher(index);
+        matcher.add("Yogurt");
+        matcher.add("flour");
+        assertEquals(Arrays.asList("raita"), ids(matcher.getMatches()));
+
+        // Buttermilk <- yogurt, sour milk <- buttermilk, and a cycle back to yogurt
+        List<SubstituteItem> substitutes = new ArrayList<>();
+        substitutes.add(new SubstituteItem("buttermilk", "1 cup", "", Arrays.asList("yoghurt")));
+        substitutes.add(new SubstituteItem("Sour Milk", "1 cup", "", Arrays.asList("buttermilk")));
+        substitutes.add(new SubstituteItem("yogurt", "1 cup", "", Arrays.asList("sour milk")));
+        index.setSubstitutes(new SubstituteGraph(substitutes));
+
+        Set<String> pantry = new HashSet<>(Arrays.asList("yogurt", "flour"));
+        List<String> expected = Arrays.asList("pancake", "scone", "raita");
+        assertEquals(expected, ids(index.findMatches(pantry, RecipeMapper.MatchMode.INDEX)));
+        assertEquals(expected, ids(index.findMatches(pantry, RecipeMapper.MatchMode.BITSET)));
+        assertEquals(expected, ids(index.findMatchesInParallel(pantry, ForkJoinPool.commonPool())));
+        assertEquals(Arrays.asList("raita"), ids(index.findMatches(pantry, RecipeMapper.MatchMode.SCAN)));
+
+        RecipeSuggestion top = index.findTopSuggestions(pantry, 1).get(0);
+        assertTrue(top.isComplete());
+        assertTrue(top.getMissingIngredients().isEmpty());
+
+        // The incremental matcher recounts once it sees the new substitutes
+        assertEquals(expected, ids(matcher.getMatches()));
+        matcher.remove("yogurt");
+        assertEquals(new ArrayList<String>(), ids(matcher.getMatches()));
+        matcher.add("sour milk");
+        assertEquals(expected, ids(matcher.getMatches()));
+    }
+
+    @Test
+    public void termMatcher_matchesTwoWayContainment() {
+        Random random = new Random(3);
+        String[] terms = randomTerms(random, 4000);
+        IngredientTermMatcher matcher = new IngredientTermMatcher(terms);
+        int[] out = new int[terms.length];
+
+        String[] items = new String[2000];
+        for (int i = 0; i < items.length; i++) {
+            String term = terms[random.nextInt(terms.length)];
+            int from = random.nextInt(term.length());
+            // Mix of substrings, exact terms and terms with extra words around them
+            switch (i % 3) {
+                case 0: items[i] = term.substring(from, from + 1 + random.nextInt(term.length() - from)); break;
+                case 1: items[i] = term; break;
+                default: items[i] = "fresh " + term + " " + terms[random.nextInt(terms.length)]; break;
+            }
+        }
+
+        for (String item : items) {
+            Set<Integer> expected = new HashSet<>();
+            for (int t = 0; t < terms.length; t++) {
+                if (item.contains(terms[t]) || terms[t].contains(item)) expected.add(t);
+            }
+
+            int count = matcher.coveredTerms(item, out);
+            Set<Integer> actual = new HashSet<>();
+            for (int i = 0; i < count; i++) actual.add(out[i]);
+            assertEquals(item, expected, actual);
+            assertEquals(item, expected.size(), count);
+        }
+    }
+
+    @Test
+    public void parallelMode_matchesSequential() {
+        Random random = new Random(5);
+        // Just past the threshold, so the catalog is really split into chunks
+        RecipeIndex index = new RecipeIndex(randomCatalog(random, RecipeIndex.PARALLEL_THRESHOLD + 1_000));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 20; i++) {
+                Set<String> pantry = randomPantry(random);
+                assertEquals(ids(index.findMatches(pantry, RecipeMapper.MatchMode.BITSET)),
+                        ids(index.findMatchesInParallel(pantry, pool)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static String[] randomTerms(Random random, int count) {
+        String[] syllables = {"ch", "ick", "en", "le", "mon", "ri", "ce", "on", "ion", "gar", "lic", "bu", "tter", "mi", "lk"};
+        Set<String> terms = new HashSet<>();
+        while (terms.size() < count) {
+            StringBuilder term = new StringBuilder();
+            int parts = 1 + random.nextInt(4);
+            for (int p = 0; p < parts; p++) {
+                if (p > 0 && random.nextInt(4) == 0) term.append(' ');
+                term.append(syllables[random.nextInt(syllables.length)]);
+            }
+            terms.add(term.toString());
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    static List<RecipeMapping> randomCatalog(Random random, int size) {
+        List<RecipeMapping> mappings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<String> required = new ArrayList<>();
+            int count = 1 + random.nextInt(4);
+            for (int j = 0; j < count; j++) required.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            mappings.add(new RecipeMapping("recipe_" + i, "Recipe " + i, "Dinner", "", required));
+        }
+        return mappings;
+    }
+
+    static Set<String> randomPantry(Random random) {
+        Set<String> pantry = new HashSet<>();
+        int count = random.nextInt(8);
+        for (int j = 0; j < count; j++) pantry.add(PANTRY_WORDS[random.nextInt(PANTRY_WORDS.length)]);
+        return pantry;
+    }
+
+    static List<String> ids(List<Recipe> recipes) {
+        List<String> ids = new ArrayList<>();
+        for (Recipe recipe : recipes) ids.add(recipe.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,79 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks LRU eviction, key normalization, invalidation, expiry and the hit and miss counts.
+ */
+public class RecipeQueryCacheTest {
+
+    @Test
+    public void get_evictsLeastRecentlyUsed() {
+        RecipeQueryCache cache = new RecipeQueryCache(2, Long.MAX_VALUE);
+        List<String> lunch = Arrays.asList("r1", "r2");
+        cache.put("Lunch", "", lunch);
+        cache.put("Lunch", "Chicken  Biryani ", Arrays.asList("r2"));
+
+        assertEquals(lunch, cache.get("lunch", "  "));
+        assertEquals(Arrays.asList("r2"), cache.get("Lunch", "chicken biryani"));
+        assertNull(cache.get("All", ""));
+
+        // "Lunch" listing was read last, so the search entry is the one evicted
+        cache.get("Lunch", "");
+        cache.put("Dinner", "", Arrays.asList("r3"));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("Lunch", "chicken biryani"));
+        assertEquals(lunch, cache.get("Lunch", ""));
+
+        cache.invalidate("dinner");
+        assertNull(cache.get("Dinner", ""));
+        assertEquals(1, cache.size());
+        cache.invalidate();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void get_dropsEntriesOlderThanTheMaxAge() {
+        long[] now = {1_000};
+        RecipeQueryCache cache = new RecipeQueryCache(8, 100, () -> now[0]);
+        cache.put("Lunch", "", Arrays.asList("r1"));
+        now[0] += 50;
+        cache.put("Dinner", "", Arrays.asList("r2"));
+
+        now[0] += 49;
+        assertEquals(Arrays.asList("r1"), cache.get("Lunch", ""));
+        now[0] += 1;
+        assertNull(cache.get("Lunch", ""));
+        assertEquals(1, cache.size());
+        assertEquals(Arrays.asList("r2"), cache.get("Dinner", ""));
+
+        // Storing again restarts the age
+        cache.put("Lunch", "", Arrays.asList("r1", "r3"));
+        now[0] += 99;
+        assertEquals(Arrays.asList("r1", "r3"), cache.get("Lunch", ""));
+        assertNull(cache.get("Dinner", ""));
+    }
+
+    @Test
+    public void counts_treatExpiredEntriesAsMisses() {
+        long[] now = {0};
+        RecipeQueryCache cache = new RecipeQueryCache(8, 100, () -> now[0]);
+        cache.put("Lunch", "", Arrays.asList("r1"));
+
+        assertNotNull(cache.get("Lunch", ""));
+        assertNull(cache.get("Dinner", ""));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+
+        now[0] += 100;
+        assertNull(cache.get("Lunch", ""));
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+        assertEquals("RecipeQueryCache{size=0, hits=1, misses=2}", cache.toString());
+    }
+}
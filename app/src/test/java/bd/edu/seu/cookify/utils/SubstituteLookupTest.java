@@ -0,0 +1,56 @@
+package bd.edu.seu.cookify.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bd.edu.seu.cookify.models.SubstituteItem;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks lookups in both directions: what replaces an ingredient and what it replaces.
+ */
+public class SubstituteLookupTest {
+
+    private static final List<SubstituteItem> ITEMS = Arrays.asList(
+            item("Sugar", "Honey", "Maple syrup"),
+            item("Honey", "Maple syrup", "Agave nectar"),
+            item("Buttermilk", "Yogurt thinned with milk", "Milk + lemon juice"),
+            item("Brown sugar", "White sugar + molasses", "honey"),
+            item("Egg", "Flax egg", "Mashed banana"),
+            new SubstituteItem(null, null, null, null)
+    );
+
+    @Test
+    public void search_findsEntriesAndWhatTheyReplace() {
+        SubstituteLookup lookup = new SubstituteLookup(ITEMS);
+
+        // The honey entry, then every entry honey can stand in for
+        assertEquals(names("Honey", "Sugar", "Brown sugar"), names(lookup.search("honey")));
+        // Partly typed words match by prefix
+        assertEquals(names("Honey", "Sugar", "Brown sugar"), names(lookup.search(" HON")));
+        assertEquals(names("Sugar", "Honey"), names(lookup.search("maple sy")));
+        assertEquals(names("Sugar", "Brown sugar"), names(lookup.search("sugar")));
+        assertEquals(names("Buttermilk"), names(lookup.search("lemon milk")));
+        assertEquals(names("Egg"), names(lookup.search("egg")));
+        assertTrue(lookup.search("tofu").isEmpty());
+        assertTrue(lookup.search("  ").isEmpty());
+    }
+
+    private static SubstituteItem item(String name, String... substitutes) {
+        return new SubstituteItem(name, "1 cup", null, new ArrayList<>(Arrays.asList(substitutes)));
+    }
+
+    private static List<String> names(String... names) {
+        return Arrays.asList(names);
+    }
+
+    private static List<String> names(List<SubstituteItem> items) {
+        List<String> names = new ArrayList<>();
+        for (SubstituteItem item : items) names.add(item.getName());
+        return names;
+    }
+}
@@ -0,0 +1,9 @@
+// Build logic shared by the app build and its unit tests
+plugins {
+    java
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
@@ -0,0 +1,137 @@
+package bd.edu.seu.cookify.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles the CSV recipe catalog (id,name,category,imageUrl,ingredients with the
+ * ingredients separated by '|') into the binary format read by BinaryRecipeCatalog.
+ * Used by the generateRecipeCatalog task and by the app's round-trip test, so both
+ * sides of the format are checked against the same writer.
+ */
+public final class RecipeCatalogWriter {
+
+    public static final int MAGIC = 0x434B5243; // "CKRC"
+    public static final int VERSION = 1;
+
+    private RecipeCatalogWriter() {}
+
+    /**
+     * Compile a CSV file into a catalog file, creating its directory
+     * @param csv Catalog source, UTF-8 with a header line
+     * @param output Binary catalog to write
+     */
+    public static void write(File csv, File output) throws IOException {
+        List<String> lines = Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8);
+        File dir = output.getParentFile();
+        if (dir != null) dir.mkdirs();
+        try (OutputStream out = new FileOutputStream(output)) {
+            write(lines, out);
+        }
+    }
+
+    /**
+     * Compile CSV lines into a catalog
+     * @param lines CSV lines, the first one is the header; blank lines are skipped
+     * @param target Receives the binary catalog, not closed
+     */
+    public static void write(List<String> lines, OutputStream target) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        boolean header = true;
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            if (header) {
+                header = false;
+                continue;
+            }
+            rows.add(parseCsvLine(line));
+        }
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        List<Integer> recipeFields = new ArrayList<>();
+        List<Integer> ingredientOffsets = new ArrayList<>();
+        List<Integer> ingredients = new ArrayList<>();
+        ingredientOffsets.add(0);
+        for (List<String> row : rows) {
+            if (row.size() != 5) {
+                throw new IllegalArgumentException("Expected id,name,category,imageUrl,ingredients but got: " + row);
+            }
+            for (int field = 0; field < 4; field++) recipeFields.add(indexOf(strings, row.get(field).strip()));
+            for (String ingredient : row.get(4).split("\\|")) {
+                String term = ingredient.strip().toLowerCase(Locale.ROOT);
+                if (!term.isEmpty()) ingredients.add(indexOf(terms, term));
+            }
+            ingredientOffsets.add(ingredients.size());
+        }
+        List<Integer> termStrings = new ArrayList<>();
+        for (String term : terms.keySet()) termStrings.add(indexOf(strings, term));
+
+        List<byte[]> stringBytes = new ArrayList<>();
+        for (String value : strings.keySet()) stringBytes.add(value.getBytes(StandardCharsets.UTF_8));
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows.size());
+        out.writeInt(terms.size());
+        out.writeInt(strings.size());
+        out.writeInt(ingredients.size());
+        for (int value : recipeFields) out.writeInt(value);
+        for (int value : ingredientOffsets) out.writeInt(value);
+        for (int value : ingredients) out.writeInt(value);
+        for (int value : termStrings) out.writeInt(value);
+        int offset = 0;
+        out.writeInt(0);
+        for (byte[] bytes : stringBytes) {
+            offset += bytes.length;
+            out.writeInt(offset);
+        }
+        for (byte[] bytes : stringBytes) out.write(bytes);
+        out.flush();
+    }
+
+    // Index of a value in insertion order, added on first sight
+    private static int indexOf(Map<String, Integer> indexes, String value) {
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = indexes.size();
+            indexes.put(value, index);
+        }
+        return index;
+    }
+
+    // Split one CSV line, honouring double-quoted fields with "" escapes
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted && c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                current.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}